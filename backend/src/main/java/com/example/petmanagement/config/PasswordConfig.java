@@ -1,15 +1,28 @@
 package com.example.petmanagement.config;
 
+import com.example.petmanagement.security.PooledPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 public class PasswordConfig {
-    
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+    /**
+     * BCrypt on a dedicated pool sized apart from Tomcat's workers; see {@link PooledPasswordEncoder}.
+     * Raising {@code auth.hashing.bcrypt-strength} applies to new hashes, and to existing ones on
+     * login when {@code auth.hashing.rehash-on-login} is set.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PooledPasswordEncoder passwordEncoder(
+            @Value("${auth.hashing.bcrypt-strength:10}") int strength,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.timeout:5s}") Duration timeout) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeout);
     }
-} 
\ No newline at end of file
+}
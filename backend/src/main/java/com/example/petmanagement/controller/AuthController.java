@@ -4,58 +4,50 @@ import com.example.petmanagement.dto.AuthRequest;
 import com.example.petmanagement.dto.RegisterRequest;
 import com.example.petmanagement.model.User;
 import com.example.petmanagement.security.JwtTokenProvider;
+import com.example.petmanagement.security.PasswordHashingRejectedException;
+import com.example.petmanagement.service.RefreshTokenService;
 import com.example.petmanagement.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private UserService userService;
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
         try {
             logger.info("Login attempt for email: {}", request.getEmail());
-            
-            // Check if user exists first
-            if (!userService.existsByEmail(request.getEmail())) {
-                logger.warn("Login failed - user not found: {}", request.getEmail());
-                return ResponseEntity.badRequest().body(Map.of(
-                    "error", "Invalid email or password",
-                    "status", "error"
-                ));
-            }
-            
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
 
-            String token = jwtTokenProvider.generateToken(authentication);
-            User user = userService.findByEmail(request.getEmail());
+            // One read of the user document: the password is checked against it and the token
+            // and response are built from it
+            User user = userService.authenticate(request.getEmail(), request.getPassword());
+            String token = jwtTokenProvider.generateToken(user);
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
+            response.put("refreshToken", refreshTokenService.issue(user));
             response.put("user", user);
             response.put("status", "success");
 
@@ -68,12 +60,9 @@ public class AuthController {
                 "error", "Invalid email or password",
                 "status", "error"
             ));
-        } catch (org.springframework.security.core.userdetails.UsernameNotFoundException e) {
-            logger.error("User not found for email: {}", request.getEmail());
-            return ResponseEntity.badRequest().body(Map.of(
-                "error", "Invalid email or password",
-                "status", "error"
-            ));
+        } catch (PasswordHashingRejectedException e) {
+            // Handled by GlobalExceptionHandler as 503 with Retry-After
+            throw e;
         } catch (Exception e) {
             logger.error("Login failed for email: " + request.getEmail(), e);
             e.printStackTrace();
@@ -106,20 +95,21 @@ public class AuthController {
 
             User savedUser = userService.registerUser(user);
 
-            // Generate token
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
-            String token = jwtTokenProvider.generateToken(authentication);
+            // The account was just created from this request, so there is nothing to re-check:
+            // issue the token from the saved document rather than reloading it and running BCrypt again
+            String token = jwtTokenProvider.generateToken(savedUser);
 
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
+            response.put("refreshToken", refreshTokenService.issue(savedUser));
             response.put("user", savedUser);
             response.put("status", "success");
 
             logger.info("Registration successful for email: {}", savedUser.getEmail());
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Registration failed for email: " + request.getEmail(), e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -129,6 +119,33 @@ public class AuthController {
         }
     }
 
+    /**
+     * Trades a refresh token for a new access token and a new refresh token; the presented one
+     * stops working.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        try {
+            RefreshTokenService.Tokens tokens = refreshTokenService.rotate(request.get("refreshToken"));
+            return ResponseEntity.ok(Map.of(
+                "token", tokens.accessToken(),
+                "refreshToken", tokens.refreshToken(),
+                "status", "success"
+            ));
+        } catch (BadCredentialsException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "error", e.getMessage(),
+                "status", "error"
+            ));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody Map<String, String> request) {
+        refreshTokenService.revoke(request.get("refreshToken"));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken(@RequestHeader("Authorization") String token) {
         try {
@@ -136,8 +153,9 @@ public class AuthController {
                 token = token.substring(7);
             }
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String email = jwtTokenProvider.extractUsername(token);
+            Optional<Claims> claims = jwtTokenProvider.verify(token);
+            if (claims.isPresent()) {
+                String email = claims.get().getSubject();
                 User user = userService.findByEmail(email);
 
                 return ResponseEntity.ok(Map.of(
@@ -0,0 +1,37 @@
+package com.example.petmanagement.controller;
+
+import com.example.petmanagement.security.CustomUserDetailsService;
+import com.example.petmanagement.security.PooledPasswordEncoder;
+import com.example.petmanagement.service.PetService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatsController {
+
+    private final PetService petService;
+    private final CustomUserDetailsService userDetailsService;
+    private final PooledPasswordEncoder passwordEncoder;
+
+    public CacheStatsController(PetService petService, CustomUserDetailsService userDetailsService,
+                                PooledPasswordEncoder passwordEncoder) {
+        this.petService = petService;
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("pets", petService.getCacheStats());
+        response.put("userDetails", userDetailsService.cacheStats());
+        response.put("passwordHashing", passwordEncoder.stats());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,14 +1,26 @@
 package com.example.petmanagement.controller;
 
+import com.example.petmanagement.dto.PetFilter;
+import com.example.petmanagement.dto.PetPage;
+import com.example.petmanagement.model.CatalogVersion;
+import com.example.petmanagement.model.OwnerDashboard;
 import com.example.petmanagement.model.Pet;
 import com.example.petmanagement.service.PetService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/pets")
@@ -26,17 +38,71 @@ public class PetController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Pet>> getAllPets() {
-        return ResponseEntity.ok(petService.getAllPets());
+    public ResponseEntity<PetPage<Pet>> getAllPets(PetFilter filter,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "" + PetService.DEFAULT_PAGE_SIZE) int limit,
+                                                   HttpServletRequest request,
+                                                   WebRequest webRequest) {
+        // Tag is taken before the query so a concurrent write can only make it older, never newer
+        CatalogVersion catalog = petService.getCatalogVersion();
+        if (webRequest.checkNotModified(catalog.etag(request.getQueryString()), catalog.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(petService.getPets(filter, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Pet>> searchPets(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "" + PetService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(petService.searchPets(query, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPets(
+            @RequestParam(required = false) String after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so each exported chunk reaches the client as it is written
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true)) {
+                    petService.exportPets(after, gzipOut);
+                }
+            } else {
+                petService.exportPets(after, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Pet> getPetById(@PathVariable String id) {
-        return petService.getPetById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<Pet> getPetById(@PathVariable String id, WebRequest webRequest) {
+        // Only a conditional request can end in 304, so only it is worth a version-only lookup
+        boolean conditional = isConditional(webRequest);
+        Optional<Pet> current = conditional ? petService.getPetVersion(id) : petService.getPetById(id);
+        if (current.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(current.get().etag(), current.get().lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Optional<Pet> pet = conditional ? petService.getPetById(id) : current;
+        return pet.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
     @GetMapping("/owner/{ownerId}")
     public ResponseEntity<List<Pet>> getPetsByOwnerId(@PathVariable String ownerId) {
         return ResponseEntity.ok(petService.getPetsByOwnerId(ownerId));
@@ -62,4 +128,9 @@ public class PetController {
     public ResponseEntity<List<Pet>> getActivePetsByOwnerId(@PathVariable String ownerId) {
         return ResponseEntity.ok(petService.getActivePetsByOwnerId(ownerId));
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/owner/{ownerId}/dashboard")
+    public ResponseEntity<OwnerDashboard> getOwnerDashboard(@PathVariable String ownerId) {
+        return ResponseEntity.ok(petService.getOwnerDashboard(ownerId));
+    }
+}
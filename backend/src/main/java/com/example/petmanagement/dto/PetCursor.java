@@ -0,0 +1,34 @@
+package com.example.petmanagement.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the pet listing, ordered by {@code (createdAt, _id)} descending.
+ * Clients only ever see the encoded form and must treat it as opaque. A pet without
+ * {@code createdAt} (which sorts last) encodes it as empty.
+ */
+public record PetCursor(LocalDateTime createdAt, String id) {
+
+    public static PetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String createdAt = raw.substring(0, separator);
+            return new PetCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String raw = (createdAt == null ? "" : createdAt.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.petmanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class PetFilter {
+    private String species;
+    private String breed;
+    private Boolean available;
+
+    // Getters and Setters
+    public String getSpecies() {
+        return species;
+    }
+
+    public void setSpecies(String species) {
+        this.species = species;
+    }
+
+    public String getBreed() {
+        return breed;
+    }
+
+    public void setBreed(String breed) {
+        this.breed = breed;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.petmanagement.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Change counter for a catalog, bumped on every write to it. Shared through Mongo so every
+ * instance derives the same listing ETag for the same catalog state.
+ */
+@Data
+@Document(collection = "catalog_version")
+public class CatalogVersion {
+    @Id
+    private String id;
+
+    private long version;
+
+    private LocalDateTime updatedAt;
+
+    /**
+     * @param key distinguishes different listings (filters, cursor, page size) of the same catalog state
+     */
+    public String etag(String key) {
+        return "\"" + id + "-" + version + "-" + Integer.toHexString(key == null ? 0 : key.hashCode()) + "\"";
+    }
+
+    /**
+     * @return the last modification time in epoch millis, or -1 if unknown
+     */
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.petmanagement.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized per-owner view of the dashboard, keyed by owner id so a dashboard load is a
+ * single point read. Maintained incrementally by {@code OwnerDashboardService} on every pet write.
+ */
+@Data
+@Document(collection = "owner_dashboard")
+public class OwnerDashboard {
+    @Id
+    private String ownerId;
+
+    private long totalPets;
+
+    private long activePetCount;
+
+    private List<ActivePet> activePets = new ArrayList<>();
+
+    private List<PetUpdate> recentUpdates = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActivePet {
+        private String petId;
+        private String name;
+        private String species;
+        private String breed;
+        private String imageUrl;
+
+        public static ActivePet of(Pet pet) {
+            return new ActivePet(pet.getId(), pet.getName(), pet.getSpecies(), pet.getBreed(), pet.getImageUrl());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PetUpdate {
+        private String petId;
+        private String name;
+        private String action;
+        private LocalDateTime at;
+    }
+}
@@ -5,23 +5,36 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 @Data
 @Document(collection = "pets")
+@CompoundIndexes({
+    @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "species_createdAt_id", def = "{'species': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "ownerId_isActive", def = "{'ownerId': 1, 'isActive': 1}")
+})
 public class Pet {
     @Id
     private String id;
 
     @NotBlank(message = "Pet name is required")
+    @TextIndexed(weight = 3)
     private String name;
 
     @NotBlank(message = "Species is required")
+    @TextIndexed(weight = 2)
     private String species;
 
     @NotBlank(message = "Breed is required")
+    @TextIndexed(weight = 2)
     private String breed;
 
     @NotNull(message = "Birth date is required")
@@ -31,12 +44,19 @@ public class Pet {
     @NotBlank(message = "Owner ID is required")
     private String ownerId;
 
+    @TextIndexed
     private String description;
 
     private String imageUrl;
 
     private boolean isActive = true;
 
+    private LocalDateTime createdAt;
+
+    private long version;
+
+    private LocalDateTime updatedAt;
+
     public String getId() {
         return id;
     }
@@ -108,4 +128,39 @@ public class Pet {
     public void setActive(boolean active) {
         isActive = active;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * @return the last modification time in epoch millis, or -1 if unknown
+     */
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.petmanagement.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One issued refresh token. Only a SHA-256 of the token is stored, as the document id, so a
+ * refresh is a single lookup by primary key and a database leak does not leak usable tokens.
+ * Every token issued by rotating from the same sign-in shares a {@code familyId}; a rotated
+ * token is kept (marked {@code used}) until it expires so replaying it can be detected.
+ * The expiry is fixed at sign-in and shared by the whole family, so rotating never extends it.
+ */
+@Data
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+    @Id
+    private String id;
+
+    @Indexed
+    private String familyId;
+
+    // Enough to mint the next access token without loading the user
+    @Indexed
+    private String userId;
+    private String email;
+    private String role;
+
+    private boolean used;
+
+    // TTL index: Mongo removes the document once this passes
+    @Indexed(expireAfterSeconds = 0)
+    private Instant familyExpiresAt;
+}
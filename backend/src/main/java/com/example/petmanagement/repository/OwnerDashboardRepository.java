@@ -0,0 +1,9 @@
+package com.example.petmanagement.repository;
+
+import com.example.petmanagement.model.OwnerDashboard;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OwnerDashboardRepository extends MongoRepository<OwnerDashboard, String> {
+}
@@ -0,0 +1,43 @@
+package com.example.petmanagement.repository;
+
+import com.example.petmanagement.dto.PetCursor;
+import com.example.petmanagement.dto.PetFilter;
+import com.example.petmanagement.model.Pet;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PetRepositoryCustom {
+    /**
+     * Returns up to {@code limit} pets matching the filter, newest first, strictly after
+     * the given cursor. A {@code null} cursor starts from the newest listing.
+     */
+    List<Pet> findPage(PetFilter filter, PetCursor after, int limit);
+
+    /**
+     * Streams every pet with an id greater than {@code afterId} in id order, backed by a
+     * server-side cursor. Callers must close the stream.
+     */
+    Stream<Pet> streamAfterId(String afterId);
+
+    /**
+     * Full-text search over name, species, breed and description using the collection's
+     * text index (English stemming), best matches first.
+     */
+    List<Pet> search(String text, int limit);
+
+    /**
+     * Loads only the id, version and update time of a pet, enough to answer a conditional GET.
+     */
+    Optional<Pet> findVersionById(String id);
+
+    /**
+     * Writes the editable fields of {@code details} and increments the version in one atomic
+     * update, so concurrent updates can never produce the same version (and ETag).
+     *
+     * @return the pet as it was before the update, or empty if there is no such pet
+     */
+    Optional<Pet> updateDetails(String id, Pet details, LocalDateTime updatedAt);
+}
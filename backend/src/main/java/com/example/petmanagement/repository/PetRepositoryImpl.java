@@ -0,0 +1,105 @@
+package com.example.petmanagement.repository;
+
+import com.example.petmanagement.dto.PetCursor;
+import com.example.petmanagement.dto.PetFilter;
+import com.example.petmanagement.model.Pet;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class PetRepositoryImpl implements PetRepositoryCustom {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public PetRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Pet> findPage(PetFilter filter, PetCursor after, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getSpecies() != null) {
+                criteria.add(Criteria.where("species").is(filter.getSpecies()));
+            }
+            if (filter.getBreed() != null) {
+                criteria.add(Criteria.where("breed").is(filter.getBreed()));
+            }
+            if (filter.getAvailable() != null) {
+                criteria.add(Criteria.where("isActive").is(filter.getAvailable()));
+            }
+        }
+        // Seek past the last document of the previous page instead of using skip(),
+        // so every page is a bounded walk of the (createdAt, _id) index.
+        // Pets without createdAt sort after every dated pet (see PetCreatedAtBackfill).
+        if (after != null && after.createdAt() != null) {
+            criteria.add(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(after.createdAt()),
+                    Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id()),
+                    Criteria.where("createdAt").is(null)
+            ));
+        } else if (after != null) {
+            criteria.add(Criteria.where("createdAt").is(null).and("id").lt(after.id()));
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "id")).limit(limit);
+        return mongoTemplate.find(query, Pet.class);
+    }
+
+    @Override
+    public Stream<Pet> streamAfterId(String afterId) {
+        Query query = new Query();
+        if (afterId != null) {
+            query.addCriteria(Criteria.where("id").gt(afterId));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, Pet.class);
+    }
+
+    @Override
+    public List<Pet> search(String text, int limit) {
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore()
+                .limit(limit);
+        return mongoTemplate.find(query, Pet.class);
+    }
+
+    @Override
+    public Optional<Pet> findVersionById(String id) {
+        Query query = Query.query(Criteria.where("id").is(id));
+        query.fields().include("version", "updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Pet.class));
+    }
+
+    @Override
+    public Optional<Pet> updateDetails(String id, Pet details, LocalDateTime updatedAt) {
+        Update update = new Update()
+                .set("name", details.getName())
+                .set("species", details.getSpecies())
+                .set("breed", details.getBreed())
+                .set("birthDate", details.getBirthDate())
+                .set("description", details.getDescription())
+                .set("imageUrl", details.getImageUrl())
+                .set("isActive", details.isActive())
+                .set("updatedAt", updatedAt)
+                .inc("version", 1);
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)), update, Pet.class));
+    }
+}
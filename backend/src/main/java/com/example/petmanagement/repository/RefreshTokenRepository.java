@@ -0,0 +1,12 @@
+package com.example.petmanagement.repository;
+
+import com.example.petmanagement.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    void deleteByFamilyId(String familyId);
+
+    void deleteByUserId(String userId);
+}
@@ -2,41 +2,108 @@ package com.example.petmanagement.security;
 
 import com.example.petmanagement.model.User;
 import com.example.petmanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
 @Service
 @Primary
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    /**
+     * User details by email. Unknown emails are cached as empty for a shorter time so repeated
+     * bad logins do not each cost an Atlas round trip. Entries are evicted explicitly whenever
+     * {@code UserService} writes the user.
+     */
+    private final Cache<String, Optional<UserDetails>> cache;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${auth.user-cache.maximum-size:10000}") long maximumSize,
+                                    @Value("${auth.user-cache.ttl:5m}") Duration ttl,
+                                    @Value("${auth.user-cache.negative-ttl:30s}") Duration negativeTtl) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Optional<UserDetails>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<UserDetails> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<UserDetails> value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<UserDetails> value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
+        UserDetails userDetails = cache.get(username, this::load)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
 
-        String role = user.getRole();
-        if (role == null || role.trim().isEmpty()) {
-            role = "USER";
-        }
-
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .roles(role)
-                .build();
+        // Hand out a copy: authentication erases credentials on the principal it returns
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build();
     }
 
     public User loadUserById(String id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
     }
-} 
\ No newline at end of file
+
+    public void evict(String email) {
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public Map<String, Object> cacheStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+
+    private Optional<UserDetails> load(String email) {
+        return userRepository.findByEmail(email).map(user -> {
+            String role = user.getRole();
+            if (role == null || role.trim().isEmpty()) {
+                role = "USER";
+            }
+
+            return org.springframework.security.core.userdetails.User.builder()
+                    .username(user.getEmail())
+                    .password(user.getPassword())
+                    .roles(role)
+                    .build();
+        });
+    }
+}
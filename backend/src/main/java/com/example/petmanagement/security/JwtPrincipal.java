@@ -0,0 +1,16 @@
+package com.example.petmanagement.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The authenticated user as carried in a verified access token. Built from claims alone, so
+ * an authenticated request needs no user lookup. {@link #getName()} is the email, which is what
+ * {@code Authentication.getName()} returned when the principal was loaded from Mongo.
+ */
+public record JwtPrincipal(String userId, String email, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -1,28 +1,86 @@
 package com.example.petmanagement.security;
 
+import com.example.petmanagement.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    static final String ROLE_CLAIM = "role";
+    static final String USER_ID_CLAIM = "uid";
+    private static final String DEFAULT_ROLE = "USER";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    private long jwtExpiration;
+
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
+    /**
+     * Claims of tokens that already passed signature verification, keyed by a digest of the
+     * token and evicted when the token itself expires. A repeated bearer skips HMAC entirely.
+     */
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        if (signingKey == null) {
+            signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        }
+        return signingKey;
+    }
+
+    private JwtParser getParser() {
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+        }
+        return jwtParser;
     }
 
     public String generateToken(Authentication authentication) {
@@ -31,42 +89,92 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(UserDetails userDetails) {
+        String role = userDetails.getAuthorities() == null ? null : userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse(null);
+        return generateToken(userDetails.getUsername(), null, role);
+    }
+
+    /**
+     * Issues a token for a user document. The subject is the email, and the user id and role
+     * travel as signed claims so requests can be authenticated without loading the user.
+     */
+    public String generateToken(User user) {
+        return generateToken(user.getEmail(), user.getId(), user.getRole());
+    }
+
+    private String generateToken(String subject, String userId, String role) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+        Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(subject)
+                .claim(ROLE_CLAIM, role == null || role.isBlank() ? DEFAULT_ROLE : role);
+        if (userId != null) {
+            builder.claim(USER_ID_CLAIM, userId);
+        }
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey())
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token once and returns its claims, or empty if the token is malformed,
+     * badly signed or expired. Verified tokens are served from cache until they expire.
+     */
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+        try {
+            claims = getParser().parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Builds the authentication for a verified token from its claims alone. Tokens issued before
+     * the role claim existed yield empty and must be replaced by signing in again.
+     */
+    public Optional<UsernamePasswordAuthenticationToken> toAuthentication(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+        JwtPrincipal principal = new JwtPrincipal(claims.get(USER_ID_CLAIM, String.class), claims.getSubject(), role);
+        return Optional.of(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+    }
 
-        return claims.getSubject();
+    public String extractUsername(String token) {
+        return verify(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtAuthenticationException("Invalid JWT token"));
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && validateToken(token));
+        return verify(token)
+                .map(claims -> claims.getSubject().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -76,4 +184,13 @@ public class JwtTokenProvider {
         }
         return null;
     }
-} 
\ No newline at end of file
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.petmanagement.security;
+
+/**
+ * Thrown when the password hashing pool is saturated and a hash or check could not be started
+ * in time. Mapped to 503 so clients back off instead of piling onto busy request threads.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
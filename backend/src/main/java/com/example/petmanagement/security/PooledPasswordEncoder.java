@@ -0,0 +1,144 @@
+package com.example.petmanagement.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt on its own bounded pool instead of the calling request thread. A login burst then
+ * queues behind a fixed number of hashing threads, leaving Tomcat's workers free for health
+ * checks and pet reads. When the queue is full, or a queued hash does not start within the
+ * timeout, the call fails fast with {@link PasswordHashingRejectedException}. The timeout bounds
+ * time spent queued only; once a hash starts, the caller waits for it to finish.
+ *
+ * <p>The request thread still waits for the result, but it waits idle rather than burning CPU.
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledPasswordEncoder.class);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    public PooledPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Cheap (it only parses the stored hash), so it runs on the caller.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                startLatch.countDown();
+                long started = System.nanoTime();
+                totalWaitNanos.addAndGet(started - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    totalHashNanos.addAndGet(System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingRejectedException("Too many concurrent sign-ins, please retry shortly");
+        }
+        try {
+            if (!startLatch.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                // Drop it from the queue; one that started just now finishes and is discarded
+                future.cancel(false);
+                timedOut.incrementAndGet();
+                throw new PasswordHashingRejectedException("Password hashing timed out, please retry shortly");
+            }
+            T result = future.get();
+            completed.incrementAndGet();
+            return result;
+        } catch (CancellationException e) {
+            throw new PasswordHashingRejectedException("Password hashing was cancelled");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long finished = Math.max(1, executor.getCompletedTaskCount());
+        result.put("threads", executor.getMaximumPoolSize());
+        result.put("active", executor.getActiveCount());
+        result.put("queued", executor.getQueue().size());
+        result.put("queueRemaining", executor.getQueue().remainingCapacity());
+        result.put("completed", completed.get());
+        result.put("rejected", rejected.get());
+        result.put("timedOut", timedOut.get());
+        result.put("averageWaitMillis", totalWaitNanos.get() / finished / 1_000_000.0);
+        result.put("averageHashMillis", totalHashNanos.get() / finished / 1_000_000.0);
+        return result;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Password hashing pool did not drain within 5s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
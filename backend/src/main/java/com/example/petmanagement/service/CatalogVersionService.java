@@ -0,0 +1,37 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.CatalogVersion;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+public class CatalogVersionService {
+
+    public static final String PETS = "pets";
+
+    private final MongoTemplate mongoTemplate;
+
+    public CatalogVersionService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void increment(String catalog) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(catalog)),
+                new Update().inc("version", 1).set("updatedAt", LocalDateTime.now()),
+                CatalogVersion.class);
+    }
+
+    public CatalogVersion current(String catalog) {
+        CatalogVersion version = mongoTemplate.findById(catalog, CatalogVersion.class);
+        if (version == null) {
+            version = new CatalogVersion();
+            version.setId(catalog);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.OwnerDashboard;
+import com.example.petmanagement.model.Pet;
+import com.example.petmanagement.repository.OwnerDashboardRepository;
+import com.example.petmanagement.repository.PetRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the {@code owner_dashboard} read model in step with pet writes using atomic
+ * {@code $inc}/{@code $push}/{@code $pull} updates, so concurrent writes for the same owner
+ * never lose counts. Run the application with {@code --rebuild-dashboards} to recompute every
+ * dashboard from the pets collection after drift.
+ */
+@Service
+public class OwnerDashboardService implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(OwnerDashboardService.class);
+
+    public static final int RECENT_UPDATES = 10;
+
+    private final OwnerDashboardRepository ownerDashboardRepository;
+    private final PetRepository petRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public OwnerDashboardService(OwnerDashboardRepository ownerDashboardRepository,
+                                 PetRepository petRepository,
+                                 MongoTemplate mongoTemplate) {
+        this.ownerDashboardRepository = ownerDashboardRepository;
+        this.petRepository = petRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public OwnerDashboard getDashboard(String ownerId) {
+        return ownerDashboardRepository.findById(ownerId)
+                .orElseGet(() -> rebuild(ownerId));
+    }
+
+    public void onPetCreated(Pet pet) {
+        Update update = new Update().inc("totalPets", 1);
+        if (pet.isActive()) {
+            update.inc("activePetCount", 1).push("activePets", OwnerDashboard.ActivePet.of(pet));
+        }
+        pushRecentUpdate(update, pet, "CREATED");
+        upsert(pet.getOwnerId(), update);
+    }
+
+    /**
+     * Each change to {@code activePets} is a single update guarded on whether the pet is listed,
+     * so concurrent updates of the same pet can neither duplicate nor double-count it.
+     */
+    public void onPetUpdated(Pet pet, boolean wasActive) {
+        Criteria owner = Criteria.where("_id").is(pet.getOwnerId());
+        if (pet.isActive() && wasActive) {
+            UpdateResult replaced = mongoTemplate.updateFirst(
+                    Query.query(owner.and("activePets.petId").is(pet.getId())),
+                    new Update().set("activePets.$", OwnerDashboard.ActivePet.of(pet)),
+                    OwnerDashboard.class);
+            if (replaced.getMatchedCount() == 0) {
+                addActivePet(pet, false);
+            }
+        } else if (pet.isActive()) {
+            addActivePet(pet, true);
+        } else if (wasActive) {
+            mongoTemplate.updateFirst(
+                    Query.query(owner.and("activePets.petId").is(pet.getId())),
+                    new Update().inc("activePetCount", -1).pull("activePets", new Document("petId", pet.getId())),
+                    OwnerDashboard.class);
+        }
+        Update update = new Update();
+        pushRecentUpdate(update, pet, "UPDATED");
+        upsert(pet.getOwnerId(), update);
+    }
+
+    private void addActivePet(Pet pet, boolean count) {
+        Update update = new Update().push("activePets", OwnerDashboard.ActivePet.of(pet));
+        if (count) {
+            update.inc("activePetCount", 1);
+        }
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(pet.getOwnerId()).and("activePets.petId").ne(pet.getId())),
+                update, OwnerDashboard.class);
+    }
+
+    public void onPetDeleted(Pet pet) {
+        Update update = new Update().inc("totalPets", -1);
+        if (pet.isActive()) {
+            update.inc("activePetCount", -1).pull("activePets", new Document("petId", pet.getId()));
+        }
+        pushRecentUpdate(update, pet, "DELETED");
+        upsert(pet.getOwnerId(), update);
+    }
+
+    /**
+     * Recomputes one owner's dashboard from the pets collection. Only the derived fields are
+     * written, in a single {@code $set}, so {@code recentUpdates} (not recoverable from the pets
+     * themselves) and concurrent pushes to it are left alone.
+     */
+    public OwnerDashboard rebuild(String ownerId) {
+        List<Pet> pets = petRepository.findByOwnerId(ownerId);
+        List<OwnerDashboard.ActivePet> activePets = new ArrayList<>();
+        for (Pet pet : pets) {
+            if (pet.isActive()) {
+                activePets.add(OwnerDashboard.ActivePet.of(pet));
+            }
+        }
+        Update update = new Update()
+                .set("totalPets", pets.size())
+                .set("activePetCount", activePets.size())
+                .set("activePets", activePets);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(ownerId)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), OwnerDashboard.class);
+    }
+
+    /**
+     * Recomputes every dashboard and drops dashboards of owners who no longer have pets.
+     *
+     * @return the number of dashboards rebuilt
+     */
+    public int rebuildAll() {
+        Set<String> ownerIds = new HashSet<>(
+                mongoTemplate.findDistinct(new Query(), "ownerId", Pet.class, String.class));
+        ownerIds.forEach(this::rebuild);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").nin(ownerIds)), OwnerDashboard.class);
+        return ownerIds.size();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("rebuild-dashboards")) {
+            logger.info("Rebuilding owner dashboards...");
+            logger.info("Rebuilt {} owner dashboards", rebuildAll());
+        }
+    }
+
+    private void pushRecentUpdate(Update update, Pet pet, String action) {
+        update.push("recentUpdates")
+                .atPosition(Update.Position.FIRST)
+                .slice(RECENT_UPDATES)
+                .value(new OwnerDashboard.PetUpdate(pet.getId(), pet.getName(), action, LocalDateTime.now()));
+    }
+
+    private void upsert(String ownerId, Update update) {
+        UpdateResult result = mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ownerId)), update,
+                OwnerDashboard.class);
+        if (result.getUpsertedId() != null) {
+            // No dashboard existed, so the increments above started from zero; the pets write
+            // has already happened, so a rebuild sees it
+            rebuild(ownerId);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.Pet;
+import com.example.petmanagement.repository.PetRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded read-through cache of pets keyed by id. Caffeine's W-TinyLFU policy keeps the few
+ * heavily viewed pets resident while one-off lookups are evicted first, so a hot pet costs no
+ * Atlas round trip.
+ */
+@Service
+public class PetCache {
+
+    private final PetRepository petRepository;
+    private final Cache<String, Pet> cache;
+
+    public PetCache(PetRepository petRepository,
+                    @Value("${pets.cache.maximum-size:10000}") long maximumSize,
+                    @Value("${pets.cache.ttl:10m}") Duration ttl) {
+        this.petRepository = petRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Pet> get(String id) {
+        return Optional.ofNullable(cache.get(id, key -> petRepository.findById(key).orElse(null)));
+    }
+
+    /**
+     * @return the cached entry without loading it on a miss
+     */
+    public Optional<Pet> peek(String id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+}
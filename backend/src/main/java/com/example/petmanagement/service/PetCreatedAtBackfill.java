@@ -0,0 +1,44 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.Pet;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pets written before {@code createdAt} existed have no value for it, and the listing's keyset
+ * criteria never match a missing value. On startup, fills it in from the creation time embedded
+ * in the document's ObjectId. Once every pet has a value, this is a single empty index lookup.
+ */
+@Component
+public class PetCreatedAtBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PetCreatedAtBackfill.class);
+
+    // BSON type number of ObjectId
+    private static final int OBJECT_ID = 7;
+
+    private final MongoTemplate mongoTemplate;
+
+    public PetCreatedAtBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        UpdateResult result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("createdAt").is(null).and("_id").type(OBJECT_ID)),
+                AggregationUpdate.update().set("createdAt").toValue(ConvertOperators.ToDate.toDate("$_id")),
+                Pet.class);
+        if (result.getModifiedCount() > 0) {
+            logger.info("Backfilled createdAt on {} pets", result.getModifiedCount());
+        }
+    }
+}
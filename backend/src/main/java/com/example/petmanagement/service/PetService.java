@@ -1,29 +1,120 @@
 package com.example.petmanagement.service;
 
+import com.example.petmanagement.dto.PetCursor;
+import com.example.petmanagement.dto.PetFilter;
+import com.example.petmanagement.dto.PetPage;
+import com.example.petmanagement.model.CatalogVersion;
+import com.example.petmanagement.model.OwnerDashboard;
 import com.example.petmanagement.model.Pet;
 import com.example.petmanagement.repository.PetRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PetService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+
     @Autowired
     private PetRepository petRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OwnerDashboardService ownerDashboardService;
+
+    @Autowired
+    private PetCache petCache;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
     public Pet createPet(Pet pet) {
-        return petRepository.save(pet);
+        if (pet.getCreatedAt() == null) {
+            pet.setCreatedAt(LocalDateTime.now());
+        }
+        pet.setVersion(1);
+        pet.setUpdatedAt(LocalDateTime.now());
+        Pet savedPet = petRepository.save(pet);
+        catalogVersionService.increment(CatalogVersionService.PETS);
+        ownerDashboardService.onPetCreated(savedPet);
+        return savedPet;
     }
 
     public List<Pet> getAllPets() {
         return petRepository.findAll();
     }
 
+    public PetPage<Pet> getPets(PetFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra document to learn whether another page exists without a count
+        List<Pet> rows = petRepository.findPage(filter, PetCursor.decode(cursor), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new PetPage<>(rows, null);
+        }
+        List<Pet> items = rows.subList(0, pageSize);
+        Pet last = items.get(pageSize - 1);
+        return new PetPage<>(items, new PetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    /**
+     * Writes every pet with an id greater than {@code afterId} as newline-delimited JSON, in id
+     * order. Documents come straight off a Mongo cursor and are flushed in chunks, so memory
+     * stays bounded and an interrupted export can resume from the last id it received.
+     */
+    public void exportPets(String afterId, OutputStream out) throws IOException {
+        try (Stream<Pet> pets = petRepository.streamAfterId(afterId)) {
+            Iterator<Pet> iterator = pets.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    public List<Pet> searchPets(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return petRepository.search(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
     public Optional<Pet> getPetById(String id) {
-        return petRepository.findById(id);
+        return petCache.get(id);
+    }
+
+    /**
+     * Answers from the cache when possible and otherwise reads only the version fields,
+     * so a conditional GET that ends in 304 never loads the full document.
+     */
+    public Optional<Pet> getPetVersion(String id) {
+        return petCache.peek(id).or(() -> petRepository.findVersionById(id));
+    }
+
+    public CatalogVersion getCatalogVersion() {
+        return catalogVersionService.current(CatalogVersionService.PETS);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return petCache.stats();
     }
 
     public List<Pet> getPetsByOwnerId(String ownerId) {
@@ -35,9 +126,13 @@ public class PetService {
     }
 
     public Pet updatePet(String id, Pet petDetails) {
-        Pet pet = petRepository.findById(id)
+        LocalDateTime now = LocalDateTime.now();
+        // The version is incremented by the database, not read-modify-written here
+        Pet pet = petRepository.updateDetails(id, petDetails, now)
                 .orElseThrow(() -> new RuntimeException("Pet not found with id: " + id));
-        
+        boolean wasActive = pet.isActive();
+
+        // Mirror the update on the old document rather than reading the pet again
         pet.setName(petDetails.getName());
         pet.setSpecies(petDetails.getSpecies());
         pet.setBreed(petDetails.getBreed());
@@ -45,14 +140,26 @@ public class PetService {
         pet.setDescription(petDetails.getDescription());
         pet.setImageUrl(petDetails.getImageUrl());
         pet.setActive(petDetails.isActive());
-        
-        return petRepository.save(pet);
+        pet.setVersion(pet.getVersion() + 1);
+        pet.setUpdatedAt(now);
+
+        petCache.invalidate(id);
+        catalogVersionService.increment(CatalogVersionService.PETS);
+        ownerDashboardService.onPetUpdated(pet, wasActive);
+        return pet;
     }
 
     public void deletePet(String id) {
         Pet pet = petRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pet not found with id: " + id));
         petRepository.delete(pet);
+        petCache.invalidate(id);
+        catalogVersionService.increment(CatalogVersionService.PETS);
+        ownerDashboardService.onPetDeleted(pet);
+    }
+
+    public OwnerDashboard getOwnerDashboard(String ownerId) {
+        return ownerDashboardService.getDashboard(ownerId);
     }
 
     public List<Pet> getActivePetsByOwnerId(String ownerId) {
@@ -0,0 +1,151 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.RefreshToken;
+import com.example.petmanagement.model.User;
+import com.example.petmanagement.repository.RefreshTokenRepository;
+import com.example.petmanagement.security.JwtTokenProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Each refresh consumes the presented token and issues a new
+ * one in the same family together with a fresh access token, so clients keep short-lived access
+ * tokens without signing in (and paying for BCrypt) again.
+ *
+ * <p>Presenting a token that was already rotated means it was copied: the whole family is
+ * revoked, which signs out both the legitimate client and whoever replayed it. A family lives
+ * for {@code jwt.refresh-expiration} from sign-in however often it is rotated.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               MongoTemplate mongoTemplate,
+                               JwtTokenProvider jwtTokenProvider,
+                               @Value("${jwt.refresh-expiration}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.ttl = Duration.ofMillis(refreshExpiration);
+    }
+
+    /**
+     * Starts a new token family for a fresh sign-in.
+     *
+     * @return the refresh token to hand to the client
+     */
+    public String issue(User user) {
+        return issue(UUID.randomUUID().toString(), Instant.now().plus(ttl),
+                user.getId(), user.getEmail(), user.getRole());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. The happy path is
+     * one atomic find-and-modify on the token's id.
+     *
+     * @throws BadCredentialsException if the token is unknown, expired or already used
+     */
+    public Tokens rotate(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        String id = hash(refreshToken);
+        RefreshToken current = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("used").is(false)),
+                new Update().set("used", true),
+                RefreshToken.class);
+        if (current == null) {
+            refreshTokenRepository.findById(id).ifPresent(replayed -> {
+                logger.warn("Refresh token reuse detected for {}, revoking its family", replayed.getEmail());
+                refreshTokenRepository.deleteByFamilyId(replayed.getFamilyId());
+            });
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        // The TTL monitor only runs about once a minute
+        if (current.getFamilyExpiresAt() == null || current.getFamilyExpiresAt().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+
+        User user = new User();
+        user.setId(current.getUserId());
+        user.setEmail(current.getEmail());
+        user.setRole(current.getRole());
+        String next = issue(current.getFamilyId(), current.getFamilyExpiresAt(),
+                current.getUserId(), current.getEmail(), current.getRole());
+        return new Tokens(jwtTokenProvider.generateToken(user), next);
+    }
+
+    /**
+     * Signs out the sign-in the token belongs to. Unknown tokens are ignored.
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findById(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    /**
+     * Signs the user out everywhere. Tokens carry the role they were issued with, so this must
+     * run whenever the password or role changes.
+     */
+    public void revokeAll(String userId) {
+        if (userId != null) {
+            refreshTokenRepository.deleteByUserId(userId);
+        }
+    }
+
+    private String issue(String familyId, Instant familyExpiresAt, String userId, String email, String role) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setId(hash(token));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUserId(userId);
+        refreshToken.setEmail(email);
+        refreshToken.setRole(role);
+        refreshToken.setFamilyExpiresAt(familyExpiresAt);
+        refreshTokenRepository.insert(refreshToken);
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Tokens(String accessToken, String refreshToken) {
+    }
+}
@@ -2,26 +2,55 @@ package com.example.petmanagement.service;
 
 import com.example.petmanagement.model.User;
 import com.example.petmanagement.repository.UserRepository;
+import com.example.petmanagement.security.CustomUserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+import java.util.Optional;
+
 @Service
 @Transactional
 public class UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private volatile String unknownUserPassword;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    @Value("${auth.hashing.rehash-on-login:false}")
+    private boolean rehashOnLogin;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       CustomUserDetailsService userDetailsService, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public User save(User user) {
+        // Existing sign-ins must not outlive a password or role change
+        boolean revokeSessions = user.getId() != null && (user.getPassword() != null
+                || userRepository.findById(user.getId())
+                        .map(stored -> !Objects.equals(stored.getRole(), user.getRole()))
+                        .orElse(false));
         if (user.getPassword() != null) {
             user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userDetailsService.evict(savedUser.getEmail());
+        if (revokeSessions) {
+            refreshTokenService.revokeAll(savedUser.getId());
+        }
+        return savedUser;
     }
 
     public User registerUser(User user) {
@@ -29,7 +58,52 @@ public class UserService {
         if (user.getRole() == null) {
             user.setRole("USER");
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        // Drops a cached "not found" from login attempts before the account existed
+        userDetailsService.evict(savedUser.getEmail());
+        return savedUser;
+    }
+
+    /**
+     * Checks a login against a single read of the user document.
+     *
+     * @throws BadCredentialsException if there is no such user or the password does not match
+     */
+    public User authenticate(String email, String rawPassword) {
+        Optional<User> user = userRepository.findByEmail(email);
+        if (user.isEmpty()) {
+            // Spend the same BCrypt time as a real check so response times don't reveal which emails exist
+            passwordEncoder.matches(rawPassword, unknownUserPassword());
+            throw new BadCredentialsException("Invalid email or password");
+        }
+        if (!passwordEncoder.matches(rawPassword, user.get().getPassword())) {
+            throw new BadCredentialsException("Invalid email or password");
+        }
+        if (rehashOnLogin && passwordEncoder.upgradeEncoding(user.get().getPassword())) {
+            rehash(user.get(), rawPassword);
+        }
+        return user.get();
+    }
+
+    /**
+     * Re-encodes a password stored with an older cost factor while the plain text is at hand.
+     * A failure here leaves the old hash in place and does not fail the login.
+     */
+    private void rehash(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+            userRepository.save(user);
+            userDetailsService.evict(user.getEmail());
+        } catch (RuntimeException e) {
+            logger.warn("Could not rehash password for {}", user.getEmail(), e);
+        }
+    }
+
+    private String unknownUserPassword() {
+        if (unknownUserPassword == null) {
+            unknownUserPassword = passwordEncoder.encode("unknown-user-password");
+        }
+        return unknownUserPassword;
     }
 
     public User findByEmail(String email) {
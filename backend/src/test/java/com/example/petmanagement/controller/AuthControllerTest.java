@@ -0,0 +1,139 @@
+package com.example.petmanagement.controller;
+
+import com.example.petmanagement.dto.AuthRequest;
+import com.example.petmanagement.dto.RegisterRequest;
+import com.example.petmanagement.model.User;
+import com.example.petmanagement.repository.UserRepository;
+import com.example.petmanagement.security.CustomUserDetailsService;
+import com.example.petmanagement.security.JwtTokenProvider;
+import com.example.petmanagement.service.RefreshTokenService;
+import com.example.petmanagement.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthControllerTest {
+
+    private AuthController authController;
+    private UserRepository userRepository;
+    private JwtTokenProvider jwtTokenProvider;
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        // Lowest BCrypt cost keeps the test fast
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        UserService userService = new UserService(userRepository, passwordEncoder, mock(CustomUserDetailsService.class),
+                mock(RefreshTokenService.class));
+
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 3600000L);
+
+        authController = new AuthController();
+        ReflectionTestUtils.setField(authController, "userService", userService);
+        ReflectionTestUtils.setField(authController, "jwtTokenProvider", jwtTokenProvider);
+        ReflectionTestUtils.setField(authController, "refreshTokenService", mock(RefreshTokenService.class));
+    }
+
+    @Test
+    void loginReadsUserOnce() {
+        // Given
+        User user = new User();
+        user.setId("user-1");
+        user.setEmail("owner@example.com");
+        user.setUsername("owner");
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRole("USER");
+        when(userRepository.findByEmail("owner@example.com")).thenReturn(Optional.of(user));
+
+        // When
+        ResponseEntity<?> response = authController.login(request("owner@example.com", "secret123"));
+
+        // Then
+        assertEquals(200, response.getStatusCode().value());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertSame(user, body.get("user"));
+        assertEquals("owner@example.com", jwtTokenProvider.extractUsername((String) body.get("token")));
+        verify(userRepository, times(1)).findByEmail("owner@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loginWithWrongPasswordReadsUserOnce() {
+        // Given
+        User user = new User();
+        user.setEmail("owner@example.com");
+        user.setPassword(passwordEncoder.encode("secret123"));
+        when(userRepository.findByEmail("owner@example.com")).thenReturn(Optional.of(user));
+
+        // When
+        ResponseEntity<?> response = authController.login(request("owner@example.com", "wrong"));
+
+        // Then
+        assertEquals(400, response.getStatusCode().value());
+        verify(userRepository, times(1)).findByEmail("owner@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void loginWithUnknownEmailReadsOnce() {
+        // Given
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<?> response = authController.login(request("nobody@example.com", "secret123"));
+
+        // Then
+        assertEquals(400, response.getStatusCode().value());
+        verify(userRepository, times(1)).findByEmail("nobody@example.com");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void registerIssuesTokenWithoutSecondPasswordCheck() {
+        // Given
+        PasswordEncoder countingEncoder = spy(passwordEncoder);
+        UserService userService = new UserService(userRepository, countingEncoder, mock(CustomUserDetailsService.class),
+                mock(RefreshTokenService.class));
+        ReflectionTestUtils.setField(authController, "userService", userService);
+        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setId("user-2");
+            return saved;
+        });
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("new@example.com");
+        request.setUsername("newowner");
+        request.setPassword("secret123");
+
+        // When
+        ResponseEntity<?> response = authController.register(request);
+
+        // Then
+        assertEquals(200, response.getStatusCode().value());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals("new@example.com", jwtTokenProvider.extractUsername((String) body.get("token")));
+        verify(countingEncoder, times(1)).encode("secret123");
+        verify(countingEncoder, never()).matches(any(), any());
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    private static AuthRequest request(String email, String password) {
+        AuthRequest request = new AuthRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.petmanagement.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,22 +19,21 @@ class JwtAuthenticationFilterTest {
 
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     private JwtTokenProvider jwtTokenProvider;
-    private CustomUserDetailsService userDetailsService;
     private HttpServletRequest request;
     private HttpServletResponse response;
     private FilterChain filterChain;
-    private UserDetails userDetails;
 
     @BeforeEach
     void setUp() {
         jwtTokenProvider = mock(JwtTokenProvider.class);
-        userDetailsService = mock(CustomUserDetailsService.class);
+        // Pure claims mapping, no collaborators
+        when(jwtTokenProvider.toAuthentication(any())).thenCallRealMethod();
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
         filterChain = mock(FilterChain.class);
-        userDetails = mock(UserDetails.class);
+        when(request.getRequestURI()).thenReturn("/api/pets");
 
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider);
         
         // Clear security context before each test
         SecurityContextHolder.clearContext();
@@ -67,30 +70,49 @@ class JwtAuthenticationFilterTest {
         // Given
         String token = "valid.jwt.token";
         String username = "testuser";
+        Claims claims = Jwts.claims().setSubject(username);
+        claims.put(JwtTokenProvider.ROLE_CLAIM, "ADMIN");
+        claims.put(JwtTokenProvider.USER_ID_CLAIM, "user-1");
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.extractUsername(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenProvider.isTokenValid(token, userDetails)).thenReturn(true);
-        when(userDetails.getUsername()).thenReturn(username);
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(token);
+        when(jwtTokenProvider.verify(token)).thenReturn(Optional.of(claims));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
-        assertEquals(username, SecurityContextHolder.getContext().getAuthentication().getName());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals(username, authentication.getName());
+        assertEquals("user-1", ((JwtPrincipal) authentication.getPrincipal()).userId());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN")));
+    }
+
+    @Test
+    void shouldNotAuthenticateTokenWithoutRoleClaim() throws Exception {
+        // Given a token issued before roles were embedded
+        String token = "legacy.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(token);
+        when(jwtTokenProvider.verify(token)).thenReturn(Optional.of(Jwts.claims().setSubject("testuser")));
+
+        // When
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
     @Test
     void shouldNotAuthenticateInvalidToken() throws Exception {
         // Given
         String token = "invalid.jwt.token";
-        String username = "testuser";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.extractUsername(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtTokenProvider.isTokenValid(token, userDetails)).thenReturn(false);
+        when(jwtTokenProvider.resolveToken(request)).thenReturn(token);
+        when(jwtTokenProvider.verify(token)).thenReturn(Optional.empty());
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
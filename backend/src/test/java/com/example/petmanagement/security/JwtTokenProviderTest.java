@@ -1,7 +1,10 @@
 package com.example.petmanagement.security;
 
+import com.example.petmanagement.model.User;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -51,6 +54,43 @@ class JwtTokenProviderTest {
         assertEquals("testuser", username);
     }
 
+    @Test
+    void verifyServesRepeatedTokenFromCache() {
+        // Generate token
+        String token = jwtTokenProvider.generateToken(userDetails);
+
+        // Verify twice
+        Claims first = jwtTokenProvider.verify(token).orElseThrow();
+        Claims second = jwtTokenProvider.verify(token).orElseThrow();
+
+        // Second call returns the cached claims without parsing again
+        assertSame(first, second);
+        assertEquals("testuser", second.getSubject());
+    }
+
+    @Test
+    void userTokenCarriesRoleAndIdClaims() {
+        User user = new User();
+        user.setId("user-1");
+        user.setEmail("owner@example.com");
+        user.setRole("ADMIN");
+
+        Claims claims = jwtTokenProvider.verify(jwtTokenProvider.generateToken(user)).orElseThrow();
+        Authentication authentication = jwtTokenProvider.toAuthentication(claims).orElseThrow();
+
+        assertEquals("owner@example.com", authentication.getName());
+        assertEquals(new JwtPrincipal("user-1", "owner@example.com", "ADMIN"), authentication.getPrincipal());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void verifyRejectsTamperedToken() {
+        String token = jwtTokenProvider.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtTokenProvider.verify(tampered).isEmpty());
+    }
+
     @Test
     void tokenExpiration() {
         // Set a very short expiration time (100ms)
@@ -0,0 +1,86 @@
+package com.example.petmanagement.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PooledPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PooledPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void delegatesOffTheCallingThread() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        String caller = Thread.currentThread().getName();
+        when(delegate.matches("secret", "hash")).thenAnswer(invocation ->
+                !Thread.currentThread().getName().equals(caller));
+        encoder = new PooledPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5));
+
+        assertTrue(encoder.matches("secret", "hash"));
+        assertEquals(1L, encoder.stats().get("completed"));
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        encoder = new PooledPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(5));
+
+        // One running, one queued
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while ((int) encoder.stats().get("queued") == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("c"));
+        assertEquals(1L, encoder.stats().get("rejected"));
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timesOutWhenHashDoesNotStartInTime() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        encoder = new PooledPasswordEncoder(delegate, 1, 4, Duration.ofMillis(50));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("b"));
+        assertEquals(1L, encoder.stats().get("timedOut"));
+
+        // The timeout only covers queueing, so the hash that started in time still completes
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.RefreshToken;
+import com.example.petmanagement.model.User;
+import com.example.petmanagement.repository.RefreshTokenRepository;
+import com.example.petmanagement.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private MongoTemplate mongoTemplate;
+    private JwtTokenProvider jwtTokenProvider;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 900000L);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, mongoTemplate, jwtTokenProvider, 3600000L);
+    }
+
+    @Test
+    void issueStoresOnlyTheHash() {
+        String token = refreshTokenService.issue(user());
+
+        ArgumentCaptor<RefreshToken> stored = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(stored.capture());
+        assertNotEquals(token, stored.getValue().getId());
+        assertEquals("user-1", stored.getValue().getUserId());
+        assertFalse(stored.getValue().isUsed());
+    }
+
+    @Test
+    void rotateIssuesNewTokensInSameFamilyWithOneLookup() {
+        String token = refreshTokenService.issue(user());
+        ArgumentCaptor<RefreshToken> issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(issued.capture());
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(issued.getValue());
+
+        RefreshTokenService.Tokens tokens = refreshTokenService.rotate(token);
+
+        assertNotEquals(token, tokens.refreshToken());
+        assertEquals("owner@example.com", jwtTokenProvider.extractUsername(tokens.accessToken()));
+        verify(mongoTemplate, times(1)).findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class));
+        verify(refreshTokenRepository, never()).findById(any());
+        ArgumentCaptor<RefreshToken> rotated = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).insert(rotated.capture());
+        assertEquals(issued.getValue().getFamilyId(), rotated.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotationKeepsTheFamilyExpiry() {
+        String token = refreshTokenService.issue(user());
+        ArgumentCaptor<RefreshToken> issued = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).insert(issued.capture());
+        Instant familyExpiresAt = issued.getValue().getFamilyExpiresAt();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class)))
+                .thenReturn(issued.getValue());
+
+        refreshTokenService.rotate(token);
+
+        ArgumentCaptor<RefreshToken> rotated = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).insert(rotated.capture());
+        assertEquals(familyExpiresAt, rotated.getValue().getFamilyExpiresAt());
+    }
+
+    @Test
+    void reusingRotatedTokenRevokesFamily() {
+        RefreshToken used = new RefreshToken();
+        used.setFamilyId("family-1");
+        used.setUsed(true);
+        used.setFamilyExpiresAt(Instant.now().plusSeconds(60));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class))).thenReturn(null);
+        when(refreshTokenRepository.findById(any())).thenReturn(Optional.of(used));
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("replayed-token"));
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshToken.class))).thenReturn(null);
+        when(refreshTokenRepository.findById(any())).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("unknown-token"));
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId("user-1");
+        user.setEmail("owner@example.com");
+        user.setRole("USER");
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.petmanagement.service;
+
+import com.example.petmanagement.model.User;
+import com.example.petmanagement.repository.UserRepository;
+import com.example.petmanagement.security.CustomUserDetailsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private UserRepository userRepository;
+    private BCryptPasswordEncoder passwordEncoder;
+    private UserService userService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = new BCryptPasswordEncoder(5);
+        userService = new UserService(userRepository, passwordEncoder, mock(CustomUserDetailsService.class),
+                mock(RefreshTokenService.class));
+
+        user = new User();
+        user.setId("user-1");
+        user.setEmail("owner@example.com");
+        // Stored before the cost was raised
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+        when(userRepository.findByEmail("owner@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void rehashesWeakerHashOnLoginWhenEnabled() {
+        ReflectionTestUtils.setField(userService, "rehashOnLogin", true);
+
+        userService.authenticate("owner@example.com", "secret");
+
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertFalse(passwordEncoder.upgradeEncoding(saved.getValue().getPassword()));
+        assertTrue(passwordEncoder.matches("secret", saved.getValue().getPassword()));
+    }
+
+    @Test
+    void keepsStoredHashWhenRehashIsDisabled() {
+        userService.authenticate("owner@example.com", "secret");
+
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void doesNotRehashHashAtCurrentCost() {
+        ReflectionTestUtils.setField(userService, "rehashOnLogin", true);
+        user.setPassword(passwordEncoder.encode("secret"));
+
+        userService.authenticate("owner@example.com", "secret");
+
+        verify(userRepository, never()).save(any());
+    }
+}
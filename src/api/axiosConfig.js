@@ -23,32 +23,56 @@ api.interceptors.request.use(
     }
 );
 
+// Refresh tokens are single use, so concurrent 401s must share one refresh; a second
+// refresh with the same token would be treated as a replay and sign the user out
+let refreshInFlight = null;
+
+const rotate = (presented) => {
+    // Another tab may have rotated while this one waited for the lock
+    const current = localStorage.getItem('refreshToken');
+    if (current && current !== presented) {
+        return Promise.resolve(localStorage.getItem('token'));
+    }
+    return axios.post(`${API_BASE_URL}/auth/refresh`, {
+        refreshToken: presented
+    }).then((response) => {
+        const { token, refreshToken } = response.data;
+        localStorage.setItem('token', token);
+        localStorage.setItem('refreshToken', refreshToken);
+        return token;
+    });
+};
+
+const refreshTokens = () => {
+    if (!refreshInFlight) {
+        const presented = localStorage.getItem('refreshToken');
+        // Tabs share localStorage, so the lock has to span tabs as well
+        const refresh = navigator.locks
+            ? navigator.locks.request('petconnect-token-refresh', () => rotate(presented))
+            : rotate(presented);
+        refreshInFlight = refresh.finally(() => {
+            refreshInFlight = null;
+        });
+    }
+    return refreshInFlight;
+};
+
 // Response interceptor to handle token expiration
 api.interceptors.response.use(
     (response) => response,
     async (error) => {
         const originalRequest = error.config;
 
-        // If the error is due to token expiration and we haven't tried to refresh yet
-        if (error.response?.status === 401 && 
-            error.response?.data?.error === 'Token expired' && 
+        // Access tokens are short-lived; renew once and retry
+        if (error.response?.status === 401 &&
+            localStorage.getItem('refreshToken') &&
+            !originalRequest.url?.startsWith('/auth/') &&
             !originalRequest._retry) {
-            
+
             originalRequest._retry = true;
 
             try {
-                // Try to refresh the token
-                const response = await axios.post(`${API_BASE_URL}/auth/refresh-token`, {}, {
-                    headers: {
-                        'Authorization': `Bearer ${localStorage.getItem('refreshToken')}`
-                    }
-                });
-
-                const { token, refreshToken } = response.data;
-                
-                // Update tokens in localStorage
-                localStorage.setItem('token', token);
-                localStorage.setItem('refreshToken', refreshToken);
+                const token = await refreshTokens();
                 
                 // Update the Authorization header
                 originalRequest.headers.Authorization = `Bearer ${token}`;
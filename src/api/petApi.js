@@ -1,11 +1,12 @@
 import api from './userApi';
 
-export const getAllPets = async () => {
+export const getAllPets = async (params = {}) => {
   try {
-    const response = await api.get('/pets');
+    const response = await api.get('/pets', { params });
     return {
       success: true,
-      pets: response.data
+      pets: response.data.items,
+      nextCursor: response.data.nextCursor
     };
   } catch (error) {
     console.error('Error fetching pets:', error);
@@ -32,11 +32,14 @@ export default function PetCard({ pet, onFavoriteToggle, isFavorite }) {
     e.target.src = defaultPetImage;
   };
 
+  // Uploaded photos have resized variants; the card only needs a small one
+  const thumbnailUrl = (url) => (url && url.includes('/uploads/') ? `${url}?w=320` : url);
+
   return (
     <div className="bg-white rounded-lg shadow-md overflow-hidden hover:shadow-lg transition-shadow duration-300">
       <div className="relative">
         <img
-          src={pet.imageUrls?.[0] || defaultPetImage}
+          src={thumbnailUrl(pet.imageUrls?.[0]) || defaultPetImage}
           alt={pet.name}
           className="w-full h-48 object-cover"
           onError={handleImageError}
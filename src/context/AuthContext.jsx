@@ -91,6 +91,11 @@ export const AuthProvider = ({ children }) => {
     };
 
     const logout = () => {
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (refreshToken) {
+            // Revoke server-side; signing out locally doesn't wait for it
+            api.post('/auth/logout', { refreshToken }).catch(() => {});
+        }
         localStorage.removeItem('token');
         localStorage.removeItem('refreshToken');
         localStorage.removeItem('currentUser');
@@ -0,0 +1,69 @@
+package com.petconnect.benchmark;
+
+import com.petconnect.service.FileStorageService;
+import com.petconnect.service.ImageDerivativeService;
+import com.petconnect.service.PackedBlobStore;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link FileStorageService} wired by hand over a temporary upload directory, as the
+ * benchmarks use it. Content addressing needs the database and is left off; image variants are
+ * not generated (random bytes don't decode), so only the storage path itself is measured.
+ */
+final class BenchmarkStorage implements AutoCloseable {
+
+    final Path uploadDir;
+    final FileStorageService fileStorageService;
+    private final PackedBlobStore packedBlobStore;
+
+    BenchmarkStorage(boolean packed) throws IOException {
+        this(Files.createTempDirectory("upload-bench"), packed);
+    }
+
+    /**
+     * Over an existing directory, indexing whatever is already in it.
+     */
+    BenchmarkStorage(Path uploadDir, boolean packed) {
+        this.uploadDir = uploadDir;
+        ImageDerivativeService imageDerivativeService =
+                new ImageDerivativeService(uploadDir.toString(), new int[] {320}, 0.8f, 1, 1, 40_000_000L);
+        packedBlobStore = new PackedBlobStore(uploadDir.toString(), packed,
+                DataSize.ofKilobytes(256), DataSize.ofMegabytes(256), 0.5);
+        fileStorageService = new FileStorageService(uploadDir.toString(), 4, false, true,
+                imageDerivativeService, null, packedBlobStore);
+    }
+
+    static MockMultipartFile randomImage(int size) {
+        byte[] content = new byte[size];
+        ThreadLocalRandom.current().nextBytes(content);
+        return new MockMultipartFile("files", "pet.jpg", "image/jpeg", content);
+    }
+
+    static String nameOf(String fileUrl) {
+        return fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Stored URLs are built from the current request, so every benchmark thread needs one bound.
+     */
+    static void bindRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileStorageService.shutdown();
+        packedBlobStore.close();
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+}
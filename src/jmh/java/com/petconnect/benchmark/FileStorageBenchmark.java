@@ -0,0 +1,133 @@
+package com.petconnect.benchmark;
+
+import com.petconnect.service.FileStorageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the {@link FileStorageService} operations behind pet registration and
+ * deletion: storing one file, storing a registration's worth of files, deleting, and the
+ * existence check. Sample-time mode reports latency percentiles next to the mean (deletes are
+ * timed as a batch instead, see {@link #delete}); run with
+ * {@code -prof gc} (the profile default) for allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    private static final int FILES_PER_REGISTRATION = 3;
+    private static final int DELETE_BATCH = 100;
+
+    @Param({"16384", "262144", "2097152"})
+    public int fileSize;
+
+    @Param({"false", "true"})
+    public boolean packed;
+
+    private BenchmarkStorage storage;
+    private MockMultipartFile file;
+    private List<MultipartFile> registration;
+    private String existingName;
+    private final List<String> stored = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkStorage.bindRequest();
+        storage = new BenchmarkStorage(packed);
+        file = BenchmarkStorage.randomImage(fileSize);
+        registration = new ArrayList<>();
+        for (int i = 0; i < FILES_PER_REGISTRATION; i++) {
+            registration.add(BenchmarkStorage.randomImage(fileSize));
+        }
+        existingName = BenchmarkStorage.nameOf(storage.fileStorageService.storeFile(file));
+    }
+
+    // Keeps the upload directory from growing without bound across iterations
+    @TearDown(Level.Iteration)
+    public void removeStored() {
+        stored.forEach(storage.fileStorageService::deleteFile);
+        stored.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public String store() {
+        String url = storage.fileStorageService.storeFile(file);
+        stored.add(url);
+        return url;
+    }
+
+    @Benchmark
+    public List<String> storeRegistration() {
+        List<String> urls = storage.fileStorageService.storeFiles(registration);
+        stored.addAll(urls);
+        return urls;
+    }
+
+    /**
+     * A delete is too short for per-invocation setup, so each iteration stores a whole batch up
+     * front and the benchmark runs exactly once per stored file.
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+        final Deque<String> urls = new ArrayDeque<>();
+
+        @Setup(Level.Iteration)
+        public void storeBatch(FileStorageBenchmark benchmark) {
+            for (int i = 0; i < DELETE_BATCH; i++) {
+                urls.push(benchmark.storage.fileStorageService.storeFile(benchmark.file));
+            }
+        }
+    }
+
+    /**
+     * Reports the time to delete {@value #DELETE_BATCH} files; divide by the batch for one delete.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = DELETE_BATCH)
+    @Measurement(iterations = 5, batchSize = DELETE_BATCH)
+    public void delete(DeleteTarget target) {
+        storage.fileStorageService.deleteFile(target.urls.pop());
+    }
+
+    @Benchmark
+    public boolean existsHit() {
+        return storage.fileStorageService.fileExists(existingName);
+    }
+
+    @Benchmark
+    public boolean existsMiss() {
+        return storage.fileStorageService.fileExists("00000000-0000-0000-0000-000000000000.jpg");
+    }
+}
@@ -0,0 +1,117 @@
+package com.petconnect.benchmark;
+
+import com.petconnect.controller.UploadServingController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load on one upload directory: registration-sized uploads through
+ * {@code storeFiles} running concurrently with downloads through {@link UploadServingController}.
+ * Throughput and latency percentiles are reported per operation; run with {@code -prof gc}
+ * (the profile default) for allocation rate.
+ *
+ * <p>Downloads pick from a pre-populated catalogue so their mix doesn't depend on how fast the
+ * uploaders go. Uploaded files are removed after each iteration.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UploadLoadBenchmark {
+
+    private static final int CATALOGUE_SIZE = 500;
+    private static final int FILES_PER_REGISTRATION = 3;
+
+    @Param({"65536", "1048576"})
+    public int fileSize;
+
+    @Param({"false", "true"})
+    public boolean packed;
+
+    private BenchmarkStorage storage;
+    private UploadServingController controller;
+    private final List<String> catalogue = new ArrayList<>();
+    private final ConcurrentLinkedQueue<String> uploaded = new ConcurrentLinkedQueue<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkStorage.bindRequest();
+        storage = new BenchmarkStorage(packed);
+        controller = new UploadServingController(storage.fileStorageService);
+        for (int i = 0; i < CATALOGUE_SIZE; i++) {
+            catalogue.add(BenchmarkStorage.nameOf(
+                    storage.fileStorageService.storeFile(BenchmarkStorage.randomImage(fileSize))));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeUploaded() {
+        String url;
+        while ((url = uploaded.poll()) != null) {
+            storage.fileStorageService.deleteFile(url);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Uploader {
+        List<MultipartFile> registration;
+
+        @Setup(Level.Trial)
+        public void setUp(UploadLoadBenchmark benchmark) {
+            BenchmarkStorage.bindRequest();
+            registration = new ArrayList<>();
+            for (int i = 0; i < FILES_PER_REGISTRATION; i++) {
+                registration.add(BenchmarkStorage.randomImage(benchmark.fileSize));
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<String> upload(Uploader uploader) {
+        List<String> urls = storage.fileStorageService.storeFiles(uploader.registration);
+        uploaded.addAll(urls);
+        return urls;
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public MockHttpServletResponse download() throws Exception {
+        String name = catalogue.get(ThreadLocalRandom.current().nextInt(catalogue.size()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + name);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(name, null, request, response);
+        return response;
+    }
+}
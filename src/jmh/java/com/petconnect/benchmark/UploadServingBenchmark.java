@@ -0,0 +1,109 @@
+package com.petconnect.benchmark;
+
+import com.petconnect.controller.UploadServingController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares {@link UploadServingController} with the {@link ResourceHttpRequestHandler} that
+ * used to serve /uploads/**, for full reads and single-range reads of one stored image.
+ *
+ * <p>Mock responses have no Tomcat sendfile support, so this measures the
+ * {@code transferTo} path; the sendfile path only shows up under a real connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadServingBenchmark {
+
+    private static final String FILENAME = "0b7e6c7e-5a1d-4c39-9a55-2f7f3b0c1d2e.jpg";
+
+    @Param({"16384", "262144", "2097152"})
+    public int fileSize;
+
+    private Path uploadDir;
+    private BenchmarkStorage storage;
+    private UploadServingController controller;
+    private ResourceHttpRequestHandler resourceHandler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        uploadDir = Files.createTempDirectory("upload-bench");
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        Files.write(uploadDir.resolve(FILENAME), content);
+
+        storage = new BenchmarkStorage(uploadDir, false);
+        controller = new UploadServingController(storage.fileStorageService);
+
+        resourceHandler = new ResourceHttpRequestHandler();
+        resourceHandler.setLocations(List.of(new FileSystemResource(uploadDir.toString() + "/")));
+        resourceHandler.afterPropertiesSet();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse resourceHandlerFull() throws Exception {
+        MockHttpServletRequest request = request(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resourceHandler.handleRequest(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uploadControllerFull() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(FILENAME, null, request(null), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse resourceHandlerRange() throws Exception {
+        MockHttpServletRequest request = request("bytes=1024-8191");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resourceHandler.handleRequest(request, response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uploadControllerRange() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(FILENAME, null, request("bytes=1024-8191"), response);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/" + FILENAME);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, FILENAME);
+        if (range != null) {
+            request.addHeader("Range", range);
+        }
+        return request;
+    }
+}
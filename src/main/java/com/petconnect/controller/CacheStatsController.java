@@ -0,0 +1,30 @@
+package com.petconnect.controller;
+
+import com.petconnect.service.PetService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:5173")
+public class CacheStatsController {
+
+    private final PetService petService;
+
+    public CacheStatsController(PetService petService) {
+        this.petService = petService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("pets", petService.getCacheStats());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,6 +1,8 @@
 package com.petconnect.controller;
 
+import com.petconnect.service.FileDeletionOutboxWorker;
 import com.petconnect.service.FileStorageService;
+import com.petconnect.service.OrphanFileReconciler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +16,16 @@ import java.util.Map;
 public class FileUploadController {
 
     private final FileStorageService fileStorageService;
+    private final OrphanFileReconciler orphanFileReconciler;
+    private final FileDeletionOutboxWorker fileDeletionOutboxWorker;
 
     @Autowired
-    public FileUploadController(FileStorageService fileStorageService) {
+    public FileUploadController(FileStorageService fileStorageService,
+                                OrphanFileReconciler orphanFileReconciler,
+                                FileDeletionOutboxWorker fileDeletionOutboxWorker) {
         this.fileStorageService = fileStorageService;
+        this.orphanFileReconciler = orphanFileReconciler;
+        this.fileDeletionOutboxWorker = fileDeletionOutboxWorker;
     }
 
     @PostMapping
@@ -35,6 +43,16 @@ public class FileUploadController {
         }
     }
 
+    @GetMapping("/orphans/stats")
+    public ResponseEntity<Map<String, Object>> getOrphanStats() {
+        return ResponseEntity.ok(orphanFileReconciler.stats());
+    }
+
+    @GetMapping("/deletions/stats")
+    public ResponseEntity<Map<String, Object>> getDeletionStats() {
+        return ResponseEntity.ok(fileDeletionOutboxWorker.stats());
+    }
+
     @DeleteMapping("/{filename}")
     public ResponseEntity<Map<String, String>> deleteFile(@PathVariable String filename) {
         try {
@@ -1,13 +1,30 @@
 package com.petconnect.controller;
 
+import com.petconnect.dto.FacetResult;
+import com.petconnect.dto.PetFilter;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.dto.PetVersion;
 import com.petconnect.model.Pet;
+import com.petconnect.service.PetFacetIndex;
 import com.petconnect.service.PetService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/pets")
@@ -31,13 +48,91 @@ public class PetController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Pet>> getAllPets() {
-        return ResponseEntity.ok(petService.getAllPets());
+    public ResponseEntity<?> getAllPets(PetFilter filter,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "" + PetService.DEFAULT_PAGE_SIZE) int limit,
+                                        HttpServletRequest request,
+                                        WebRequest webRequest) {
+        // Tag is taken before the query so a concurrent write can only make it older, never newer
+        String etag = petService.getCatalogEtag(request.getQueryString());
+        if (webRequest.checkNotModified(etag, petService.getCatalogLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        try {
+            return ResponseEntity.ok(petService.getPets(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetResult> searchFacets(@RequestParam MultiValueMap<String, String> params,
+                                                    @RequestParam(defaultValue = "" + PetService.DEFAULT_PAGE_SIZE) int limit) {
+        Map<String, Set<String>> filters = new HashMap<>();
+        for (String facet : PetFacetIndex.FACETS) {
+            List<String> values = params.get(facet);
+            if (values != null) {
+                filters.put(facet, new HashSet<>(values));
+            }
+        }
+        return ResponseEntity.ok(petService.searchFacets(filters, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPets(@RequestParam("q") String query,
+                                        @RequestParam(defaultValue = "" + PetService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            return ResponseEntity.ok(petService.searchPets(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPets(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush so each exported chunk reaches the client as it is written
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192, true)) {
+                    petService.exportPets(after, gzipOut);
+                }
+            } else {
+                petService.exportPets(after, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Pet> getPetById(@PathVariable Long id) {
-        return ResponseEntity.ok(petService.getPetById(id));
+    public ResponseEntity<PetSummary> getPetById(@PathVariable Long id, WebRequest webRequest) {
+        // Only a conditional request can end in 304, so only it is worth a version-only lookup
+        PetSummary pet = null;
+        PetVersion version;
+        if (isConditional(webRequest)) {
+            version = petService.getPetVersion(id);
+        } else {
+            pet = petService.getPetSummary(id);
+            version = PetVersion.of(pet);
+        }
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(pet != null ? pet : petService.getPetSummary(id));
+    }
+
+    private static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
     }
 
     @PutMapping("/{id}")
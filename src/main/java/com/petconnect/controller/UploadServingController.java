@@ -0,0 +1,158 @@
+package com.petconnect.controller;
+
+import com.petconnect.service.FileStorageService;
+import com.petconnect.service.PackedBlobStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves stored uploads. Stored names are random UUIDs that are never reused for different
+ * content, so responses are marked immutable and cacheable for a year.
+ *
+ * <p>Bodies of at least {@link #SENDFILE_THRESHOLD} bytes are handed to Tomcat's sendfile
+ * support when the connector offers it, so the kernel copies the file straight to the socket.
+ * Otherwise the file is written with {@link FileChannel#transferTo}. Uploads held in the
+ * {@link PackedBlobStore} are written straight from their mapped segment.
+ *
+ * <p>{@code ?w=320} serves a resized variant from {@link com.petconnect.service.ImageDerivativeService}
+ * when one is ready, and the original (briefly cacheable) until then.
+ */
+@RestController
+public class UploadServingController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Same cut-over Tomcat's DefaultServlet uses; below it sendfile costs more than it saves
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private static final String CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    // Sent when ?w= falls back to the original because the variant isn't generated yet
+    private static final String FALLBACK_CACHE_CONTROL =
+            CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic().getHeaderValue();
+
+    private final FileStorageService fileStorageService;
+
+    @Autowired
+    public UploadServingController(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    @RequestMapping(value = "/uploads/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@PathVariable String filename, @RequestParam(required = false) Integer w,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = fileStorageService.resolveFile(filename);
+        PackedBlobStore.Blob packed = file == null ? fileStorageService.readPacked(filename) : null;
+        if (file == null && packed == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        boolean fallback = false;
+        if (w != null && w > 0) {
+            Path variant = fileStorageService.resolveVariant(filename, w);
+            if (variant != null) {
+                file = variant;
+                packed = null;
+            } else {
+                fallback = true;
+            }
+        }
+
+        long length = packed != null ? packed.data().remaining() : Files.size(file);
+        long lastModified = packed != null ? packed.storedAt() : Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fallback ? FALLBACK_CACHE_CONTROL : CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multiple ranges would need multipart/byteranges; answering with the whole file is allowed instead
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if (RequestMethod.HEAD.name().equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (packed != null) {
+            ByteBuffer body = packed.data().limit((int) end + 1).position((int) start);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (body.hasRemaining()) {
+                out.write(body);
+            }
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            // Tomcat's end is exclusive
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end + 1 - position, out);
+                if (transferred <= 0) {
+                    // Truncated or replaced since its size was read; the promised length can't be met
+                    throw new EOFException("File " + filename + " changed while being served");
+                }
+                position += transferred;
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.petconnect.controller;
+
+import com.petconnect.service.UploadSessionService;
+import com.petconnect.service.UploadSessionService.UploadSession;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Resumable upload protocol next to {@link FileUploadController}:
+ * <ol>
+ *   <li>{@code POST /api/upload/sessions} with {@code filename} and {@code size} opens a session</li>
+ *   <li>{@code PATCH /api/upload/sessions/{id}} with an {@code Upload-Offset} header appends the raw body</li>
+ *   <li>{@code HEAD /api/upload/sessions/{id}} reports the offset to resume from after a failure</li>
+ *   <li>{@code POST /api/upload/sessions/{id}/complete} stores the file and returns its URL</li>
+ * </ol>
+ */
+@RestController
+@RequestMapping("/api/upload/sessions")
+@CrossOrigin(origins = "${cors.allowed-origin}", exposedHeaders = {UploadSessionController.UPLOAD_OFFSET, "Location"})
+public class UploadSessionController {
+
+    public static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    private final UploadSessionService uploadSessionService;
+
+    @Autowired
+    public UploadSessionController(UploadSessionService uploadSessionService) {
+        this.uploadSessionService = uploadSessionService;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> create(@RequestBody Map<String, Object> request) {
+        try {
+            Object size = request.get("size");
+            UploadSession session = uploadSessionService.create((String) request.get("filename"),
+                    size instanceof Number number ? number.longValue() : -1);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}").buildAndExpand(session.getId()).toUri();
+            return ResponseEntity.created(location)
+                    .header(UPLOAD_OFFSET, "0")
+                    .body(describe(session));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @RequestMapping(value = "/{id}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public ResponseEntity<Map<String, Object>> status(@PathVariable String id) {
+        try {
+            UploadSession session = uploadSessionService.get(id);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                    .body(describe(session));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> append(@PathVariable String id,
+                                                      @RequestHeader(UPLOAD_OFFSET) long offset,
+                                                      HttpServletRequest request) throws IOException {
+        UploadSession session;
+        try {
+            session = uploadSessionService.get(id);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            long newOffset = uploadSessionService.append(id, offset, request.getInputStream());
+            return ResponseEntity.noContent()
+                    .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                    .build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            // Client and server disagree on the offset; tell it where to resume. The session may
+            // have completed or expired meanwhile, so this reads the instance already in hand.
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<Map<String, Object>> complete(@PathVariable String id) {
+        try {
+            String fileUrl = uploadSessionService.complete(id);
+            return ResponseEntity.ok(Map.of(
+                "url", fileUrl,
+                "message", "File uploaded successfully"
+            ));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abort(@PathVariable String id) {
+        uploadSessionService.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private Map<String, Object> describe(UploadSession session) {
+        return Map.of(
+            "id", session.getId(),
+            "filename", session.getFilename(),
+            "size", session.getSize(),
+            "offset", session.getOffset(),
+            "expiresAt", uploadSessionService.expiresAt(session).toString()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.petconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FacetResult {
+    private int total;
+    private List<Long> ids;
+    private Map<String, Map<String, Integer>> counts;
+}
@@ -0,0 +1,14 @@
+package com.petconnect.dto;
+
+import com.petconnect.model.Pet;
+
+/**
+ * The facet-relevant columns of a pet, loaded by projection when (re)building the facet index.
+ */
+public record PetFacets(Long id, String species, String breed, String gender, boolean available, double price) {
+
+    public static PetFacets of(Pet pet) {
+        return new PetFacets(pet.getId(), pet.getSpecies(), pet.getBreed(), pet.getGender(),
+                pet.isAvailable(), pet.getPrice());
+    }
+}
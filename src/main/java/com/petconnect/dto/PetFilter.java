@@ -0,0 +1,12 @@
+package com.petconnect.dto;
+
+import lombok.Data;
+
+@Data
+public class PetFilter {
+    private String species;
+    private String breed;
+    private Boolean available;
+    private Double minPrice;
+    private Double maxPrice;
+}
@@ -0,0 +1,51 @@
+package com.petconnect.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only listing view of a pet. Loaded by projection so that serializing a page never
+ * touches the lazy {@code seller} proxy or the {@code imageUrls} collection of an entity.
+ */
+@Data
+@NoArgsConstructor
+public class PetSummary {
+    private Long id;
+    private String name;
+    private String species;
+    private String breed;
+    private Integer age;
+    private String gender;
+    private String description;
+    private Double price;
+    private Boolean available;
+    private LocalDateTime createdAt;
+    private Long version;
+    private LocalDateTime updatedAt;
+    private Long sellerId;
+    private String sellerUsername;
+    private List<String> imageUrls = new ArrayList<>();
+
+    public PetSummary(Long id, String name, String species, String breed, Integer age, String gender,
+                      String description, Double price, Boolean available, LocalDateTime createdAt,
+                      Long version, LocalDateTime updatedAt, Long sellerId, String sellerUsername) {
+        this.id = id;
+        this.name = name;
+        this.species = species;
+        this.breed = breed;
+        this.age = age;
+        this.gender = gender;
+        this.description = description;
+        this.price = price;
+        this.available = available;
+        this.createdAt = createdAt;
+        this.version = version;
+        this.updatedAt = updatedAt;
+        this.sellerId = sellerId;
+        this.sellerUsername = sellerUsername;
+    }
+}
@@ -0,0 +1,25 @@
+package com.petconnect.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Just enough of a pet to answer a conditional GET without loading or serializing it.
+ */
+public record PetVersion(Long id, Long version, LocalDateTime updatedAt) {
+
+    public static PetVersion of(PetSummary pet) {
+        return new PetVersion(pet.getId(), pet.getVersion(), pet.getUpdatedAt());
+    }
+
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * @return the last modification time in epoch millis, or -1 if unknown
+     */
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
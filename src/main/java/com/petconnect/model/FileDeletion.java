@@ -0,0 +1,43 @@
+package com.petconnect.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox entry for an upload that should be deleted once the transaction that orphaned it has
+ * committed. Drained by {@link com.petconnect.service.FileDeletionOutboxWorker}.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "file_deletion_outbox", indexes = {
+        @Index(name = "idx_file_deletion_next_attempt", columnList = "next_attempt_at, id")
+})
+public class FileDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_url", nullable = false, length = 1024)
+    private String fileUrl;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null once retries are exhausted, which parks the entry for inspection
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    private int attempts;
+
+    @Column(length = 1024)
+    private String lastError;
+
+    public FileDeletion(String fileUrl) {
+        this.fileUrl = fileUrl;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = createdAt;
+    }
+}
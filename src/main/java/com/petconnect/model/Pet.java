@@ -1,5 +1,6 @@
 package com.petconnect.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -8,7 +9,10 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+        @Index(name = "idx_pets_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_pets_species_created_id", columnList = "species, created_at, id")
+})
 public class Pet {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -43,8 +47,22 @@ public class Pet {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.petconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reference count for a content-addressed upload. The name is the SHA-256 of the content plus
+ * the original extension, so identical uploads share one file and one row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_files")
+public class StoredFile {
+    @Id
+    @Column(length = 80)
+    private String name;
+
+    @Column(nullable = false)
+    private long refCount;
+
+    @Column(nullable = false)
+    private long size;
+}
@@ -0,0 +1,16 @@
+package com.petconnect.repository;
+
+import com.petconnect.model.FileDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FileDeletionRepository extends JpaRepository<FileDeletion, Long> {
+    List<FileDeletion> findByNextAttemptAtLessThanEqualOrderByIdAsc(LocalDateTime now, Pageable pageable);
+
+    long countByNextAttemptAtIsNull();
+}
@@ -1,7 +1,45 @@
 package com.petconnect.repository;
 
+import com.petconnect.dto.PetFacets;
+import com.petconnect.dto.PetVersion;
 import com.petconnect.model.Pet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface PetRepository extends JpaRepository<Pet, Long> {
-} 
\ No newline at end of file
+import java.util.List;
+import java.util.Optional;
+
+public interface PetRepository extends JpaRepository<Pet, Long>, PetRepositoryCustom {
+
+    @Query("select new com.petconnect.dto.PetFacets(p.id, p.species, p.breed, p.gender, p.available, p.price) from Pet p")
+    List<PetFacets> findAllFacets();
+
+    @Query("select new com.petconnect.dto.PetVersion(p.id, p.version, p.updatedAt) from Pet p where p.id = :id")
+    Optional<PetVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Changes whenever a pet is added, removed or updated (the version is bumped on every
+     * update), so it tells whether an index built from an earlier database still matches.
+     */
+    @Query("select concat(cast(count(p) as String), ':', cast(coalesce(max(p.id), 0) as String), ':', "
+            + "cast(coalesce(sum(p.version), 0) as String)) from Pet p")
+    String contentFingerprint();
+
+    @Query(value = "select image_url from pet_images", nativeQuery = true)
+    List<String> findAllImageUrls();
+
+    @Query(value = "select count(*) from pet_images where image_url like concat('%/', :name)", nativeQuery = true)
+    long countImageReferences(@Param("name") String name);
+
+    /**
+     * Points every image URL ending in {@code oldName} at {@code newName}.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update pet_images set image_url = replace(image_url, :oldName, :newName) "
+            + "where image_url like concat('%/', :oldName)", nativeQuery = true)
+    int renameImage(@Param("oldName") String oldName, @Param("newName") String newName);
+}
@@ -0,0 +1,34 @@
+package com.petconnect.repository;
+
+import com.petconnect.dto.PetCursor;
+import com.petconnect.dto.PetFilter;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.model.Pet;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PetRepositoryCustom {
+    /**
+     * Returns up to {@code limit} pets matching the filter, newest first, strictly after
+     * the given cursor. A {@code null} cursor starts from the newest listing.
+     */
+    List<Pet> findPage(PetFilter filter, PetCursor after, int limit);
+
+    /**
+     * Same page as {@link #findPage} but as listing projections, with seller and images
+     * resolved in a fixed number of statements regardless of page size.
+     */
+    List<PetSummary> findSummaryPage(PetFilter filter, PetCursor after, int limit);
+
+    /**
+     * Returns up to {@code limit} listing projections with an id greater than {@code afterId},
+     * in id order. Used to scroll the whole catalog in fixed-size chunks.
+     */
+    List<PetSummary> findSummariesAfterId(Long afterId, int limit);
+
+    /**
+     * Returns listing projections for the given ids, in no particular order.
+     */
+    List<PetSummary> findSummariesByIds(Collection<Long> ids);
+}
@@ -0,0 +1,154 @@
+package com.petconnect.repository;
+
+import com.petconnect.dto.PetCursor;
+import com.petconnect.dto.PetFilter;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.model.Pet;
+import com.petconnect.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PetRepositoryImpl implements PetRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Pet> findPage(PetFilter filter, PetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Pet> query = cb.createQuery(Pet.class);
+        Root<Pet> pet = query.from(Pet.class);
+
+        query.select(pet)
+                .where(pagePredicates(cb, pet, filter, after))
+                .orderBy(cb.desc(pet.get("createdAt")), cb.desc(pet.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PetSummary> findSummaryPage(PetFilter filter, PetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PetSummary> query = cb.createQuery(PetSummary.class);
+        Root<Pet> pet = query.from(Pet.class);
+        Join<Pet, User> seller = pet.join("seller");
+
+        query.select(summaryOf(cb, pet, seller))
+                .where(pagePredicates(cb, pet, filter, after))
+                .orderBy(cb.desc(pet.get("createdAt")), cb.desc(pet.get("id")));
+
+        return loadImages(entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public List<PetSummary> findSummariesAfterId(Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PetSummary> query = cb.createQuery(PetSummary.class);
+        Root<Pet> pet = query.from(Pet.class);
+        Join<Pet, User> seller = pet.join("seller");
+        Path<Long> id = pet.get("id");
+
+        query.select(summaryOf(cb, pet, seller))
+                .orderBy(cb.asc(id));
+        if (afterId != null) {
+            query.where(cb.greaterThan(id, afterId));
+        }
+
+        return loadImages(entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Override
+    public List<PetSummary> findSummariesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PetSummary> query = cb.createQuery(PetSummary.class);
+        Root<Pet> pet = query.from(Pet.class);
+        Join<Pet, User> seller = pet.join("seller");
+
+        query.select(summaryOf(cb, pet, seller))
+                .where(pet.get("id").in(ids));
+
+        return loadImages(entityManager.createQuery(query).getResultList());
+    }
+
+    private CompoundSelection<PetSummary> summaryOf(
+            CriteriaBuilder cb, Root<Pet> pet, Join<Pet, User> seller) {
+        return cb.construct(PetSummary.class,
+                pet.get("id"), pet.get("name"), pet.get("species"), pet.get("breed"),
+                pet.get("age"), pet.get("gender"), pet.get("description"), pet.get("price"),
+                pet.get("available"), pet.get("createdAt"), pet.get("version"), pet.get("updatedAt"),
+                seller.get("id"), seller.get("username"));
+    }
+
+    private List<PetSummary> loadImages(List<PetSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+
+        // One IN query for the images of the whole page instead of one per pet
+        Map<Long, PetSummary> byId = new LinkedHashMap<>();
+        summaries.forEach(summary -> byId.put(summary.getId(), summary));
+        entityManager.createQuery(
+                        "select p.id, image from Pet p join p.imageUrls image where p.id in :ids", Object[].class)
+                .setParameter("ids", byId.keySet())
+                .getResultList()
+                .forEach(row -> byId.get((Long) row[0]).getImageUrls().add((String) row[1]));
+
+        return summaries;
+    }
+
+    private Predicate[] pagePredicates(CriteriaBuilder cb, Root<Pet> pet, PetFilter filter, PetCursor after) {
+        Path<LocalDateTime> createdAt = pet.get("createdAt");
+        Path<Long> id = pet.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getSpecies() != null) {
+                predicates.add(cb.equal(pet.get("species"), filter.getSpecies()));
+            }
+            if (filter.getBreed() != null) {
+                predicates.add(cb.equal(pet.get("breed"), filter.getBreed()));
+            }
+            if (filter.getAvailable() != null) {
+                predicates.add(cb.equal(pet.get("available"), filter.getAvailable()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.ge(pet.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.le(pet.get("price"), filter.getMaxPrice()));
+            }
+        }
+        // Seek past the last row of the previous page instead of using OFFSET,
+        // so every page is a bounded index range scan on (created_at, id).
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))
+            ));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
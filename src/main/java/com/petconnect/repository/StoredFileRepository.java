@@ -0,0 +1,28 @@
+package com.petconnect.repository;
+
+import com.petconnect.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.refCount = f.refCount + 1 where f.name = :name")
+    int incrementRefCount(@Param("name") String name);
+
+    /**
+     * Drops one reference unless it is the last one.
+     *
+     * @return 1 if a reference was dropped, 0 if the file has at most one reference left
+     */
+    @Transactional
+    @Modifying
+    @Query("update StoredFile f set f.refCount = f.refCount - 1 where f.name = :name and f.refCount > 1")
+    int decrementRefCount(@Param("name") String name);
+}
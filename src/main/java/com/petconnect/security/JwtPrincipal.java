@@ -0,0 +1,15 @@
+package com.petconnect.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The authenticated user as carried in a verified access token, so an authenticated request
+ * needs no user lookup.
+ */
+public record JwtPrincipal(Long userId, String username, String role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
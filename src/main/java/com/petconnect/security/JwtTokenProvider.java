@@ -1,21 +1,35 @@
 package com.petconnect.security;
 
+import com.petconnect.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -25,22 +39,70 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private int refreshExpiration;
 
-    private final UserDetailsService userDetailsService;
+    private volatile Key signingKey;
+    private volatile JwtParser jwtParser;
+
+    /**
+     * Claims of tokens that already passed signature verification, keyed by a digest of the
+     * token and evicted when the token itself expires. A repeated bearer skips HMAC entirely.
+     */
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
-    public JwtTokenProvider(UserDetailsService userDetailsService) {
-        this.userDetailsService = userDetailsService;
+    private Key getSigningKey() {
+        if (signingKey == null) {
+            signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        }
+        return signingKey;
     }
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private JwtParser getParser() {
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+        }
+        return jwtParser;
     }
 
+    /**
+     * The role (and the user id, when the principal is a {@link User}) travel as signed claims,
+     * so {@link #getAuthentication} never has to load the user.
+     */
     public String generateToken(Authentication authentication) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(authentication.getName())
+                .claim(ROLE_CLAIM, authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .filter(authority -> authority.startsWith("ROLE_"))
+                        .map(authority -> authority.substring("ROLE_".length()))
+                        .findFirst()
+                        .orElse("USER"));
+        if (authentication.getPrincipal() instanceof User user) {
+            builder.claim(USER_ID_CLAIM, user.getId());
+        }
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey())
@@ -59,34 +121,56 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        String username = getUsernameFromToken(token);
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
-    }
-
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+    /**
+     * Builds the authentication from the token's verified claims alone.
+     *
+     * @throws JwtAuthenticationException if the token is invalid or predates the role claim
+     */
+    public UsernamePasswordAuthenticationToken getAuthentication(String token) {
+        Claims claims = verify(token);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null) {
+            throw new JwtAuthenticationException("Token has no role claim, please sign in again");
+        }
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        JwtPrincipal principal = new JwtPrincipal(userId != null ? userId.longValue() : null, claims.getSubject(), role);
+        return new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token once and returns its claims. Verified tokens are served from cache
+     * until they expire, so a repeated bearer costs a digest instead of an HMAC check.
+     *
+     * @throws JwtTokenExpiredException if the token has expired
+     * @throws JwtAuthenticationException if the token is malformed or badly signed
+     */
+    public Claims verify(String token) {
+        String key = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims != null) {
+            return claims;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            claims = getParser().parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException ex) {
             throw new JwtTokenExpiredException("JWT token has expired", ex);
-        } catch (JwtException ex) {
+        } catch (JwtException | IllegalArgumentException ex) {
             throw new JwtAuthenticationException("Invalid JWT token", ex);
         }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return verify(token).getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        verify(token);
+        return true;
     }
 
     public String resolveToken(HttpServletRequest request) {
@@ -96,4 +180,13 @@ public class JwtTokenProvider {
         }
         return null;
     }
-} 
\ No newline at end of file
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.petconnect.service;
+
+import com.petconnect.model.StoredFile;
+import com.petconnect.repository.StoredFileRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reference counts of content-addressed blobs and the adoption of existing uploads under their
+ * content address. Stores and deletes through {@link FileStorageService} keep their own counts;
+ * this covers migrations and the deletion outbox, which change counts out of band.
+ */
+@Service
+public class BlobReferenceService {
+
+    private final FileStorageService fileStorageService;
+    private final StoredFileRepository storedFileRepository;
+    private final PackedBlobStore packedBlobStore;
+    private final ImageDerivativeService imageDerivativeService;
+
+    public BlobReferenceService(FileStorageService fileStorageService,
+                                StoredFileRepository storedFileRepository,
+                                PackedBlobStore packedBlobStore,
+                                ImageDerivativeService imageDerivativeService) {
+        this.fileStorageService = fileStorageService;
+        this.storedFileRepository = storedFileRepository;
+        this.packedBlobStore = packedBlobStore;
+        this.imageDerivativeService = imageDerivativeService;
+    }
+
+    /**
+     * @return the content-addressed name for an existing upload
+     */
+    public String contentAddressOf(String fileName) {
+        String extension = fileName.contains(".") ? fileName.substring(fileName.lastIndexOf(".")) : "";
+        try {
+            Path source = fileStorageService.resolveFile(fileName);
+            if (source != null) {
+                return FileStorageService.digestName(source, extension);
+            }
+            PackedBlobStore.Blob blob = packedBlobStore.read(fileName);
+            if (blob == null) {
+                throw new RuntimeException("File not found: " + fileName);
+            }
+            return FileStorageService.digestName(blob.data(), extension);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read file " + fileName, ex);
+        }
+    }
+
+    /**
+     * Renames an existing upload to {@code blobName}, merging it into an identical blob if one
+     * is already stored. Used to migrate UUID-named uploads; reference counts are not touched.
+     */
+    public void adoptFile(String fileName, String blobName) {
+        if (blobName.equals(fileName)) {
+            return;
+        }
+        try {
+            synchronized (fileStorageService.lockFor(blobName)) {
+                if (packedBlobStore.contains(fileName)) {
+                    if (!fileStorageService.fileExists(blobName)) {
+                        packedBlobStore.put(blobName, fileStorageService.readPackedBytes(fileName));
+                        fileStorageService.scheduleDerivatives(blobName);
+                    }
+                    packedBlobStore.delete(fileName);
+                } else {
+                    Path source = fileStorageService.unindex(fileName);
+                    if (source == null) {
+                        throw new RuntimeException("File not found: " + fileName);
+                    }
+                    if (fileStorageService.fileExists(blobName)) {
+                        Files.delete(source);
+                    } else {
+                        fileStorageService.place(source, blobName);
+                        fileStorageService.scheduleDerivatives(blobName);
+                    }
+                }
+            }
+            imageDerivativeService.deleteVariants(fileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not migrate file " + fileName, ex);
+        }
+    }
+
+    /**
+     * Overwrites the reference count of a content-addressed blob, e.g. after a migration.
+     * A count of zero forgets the blob without deleting it.
+     */
+    public void setReferenceCount(String fileName, long refCount) {
+        if (!fileStorageService.fileExists(fileName)) {
+            return;
+        }
+        synchronized (fileStorageService.lockFor(fileName)) {
+            if (refCount <= 0) {
+                storedFileRepository.deleteById(fileName);
+                return;
+            }
+            try {
+                Path file = fileStorageService.resolveFile(fileName);
+                long size = file != null ? Files.size(file) : fileStorageService.readPackedBytes(fileName).length;
+                storedFileRepository.save(new StoredFile(fileName, refCount, size));
+            } catch (IOException ex) {
+                throw new RuntimeException("Could not read file " + fileName, ex);
+            }
+        }
+    }
+
+    /**
+     * Drops one reference to a content-addressed blob without touching the blob itself. Runs in
+     * the caller's transaction, so the count only changes if the caller commits.
+     *
+     * @return whether that was the last reference, i.e. the blob should be removed once the
+     *         caller has committed (see {@link #removeIfUnreferenced})
+     */
+    public boolean releaseReference(String fileName) {
+        synchronized (fileStorageService.lockFor(fileName)) {
+            if (storedFileRepository.decrementRefCount(fileName) > 0) {
+                return false;
+            }
+            storedFileRepository.findById(fileName).ifPresent(storedFileRepository::delete);
+            return true;
+        }
+    }
+
+    /**
+     * Removes a blob whose last reference was released, unless the same content was stored
+     * again in the meantime.
+     *
+     * @return whether a file was removed
+     */
+    public boolean removeIfUnreferenced(String fileName) {
+        synchronized (fileStorageService.lockFor(fileName)) {
+            if (storedFileRepository.existsById(fileName) || !fileStorageService.fileExists(fileName)) {
+                return false;
+            }
+            fileStorageService.removeFile(fileName);
+            return true;
+        }
+    }
+}
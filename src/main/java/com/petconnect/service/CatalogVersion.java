@@ -0,0 +1,34 @@
+package com.petconnect.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counter for the pet catalog, bumped on every pet write. Listing responses derive their
+ * ETag from it, so an unchanged catalog can be answered with 304 without running the query.
+ * The boot timestamp is part of the tag so counters from an earlier run never match.
+ */
+@Service
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long lastModified = epoch;
+
+    public void increment() {
+        counter.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    /**
+     * @param key distinguishes different listings (filters, cursor, page size) of the same catalog state
+     */
+    public String etag(String key) {
+        return "\"catalog-" + epoch + "-" + counter.get() + "-" + Integer.toHexString(key == null ? 0 : key.hashCode()) + "\"";
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
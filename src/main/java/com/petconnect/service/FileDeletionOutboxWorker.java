@@ -0,0 +1,131 @@
+package com.petconnect.service;
+
+import com.petconnect.model.FileDeletion;
+import com.petconnect.repository.FileDeletionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code file_deletion_outbox}. Entries are written in the same transaction as the pet
+ * delete, so they only become visible after it commits, and a rolled-back delete never loses
+ * its files. A failed deletion is retried with exponential backoff up to
+ * {@code file.deletion-outbox.max-attempts} times; after that the entry is parked.
+ *
+ * <p>In content-addressed mode, releasing the reference and deleting the entry commit together,
+ * so a retry never drops a second reference. The blob is removed only after that commit; if the
+ * removal fails, the file is unreferenced and {@link OrphanFileReconciler} reclaims it.
+ */
+@Service
+public class FileDeletionOutboxWorker {
+    private static final Logger logger = LoggerFactory.getLogger(FileDeletionOutboxWorker.class);
+
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final FileDeletionRepository fileDeletionRepository;
+    private final FileStorageService fileStorageService;
+    private final BlobReferenceService blobReferenceService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public FileDeletionOutboxWorker(FileDeletionRepository fileDeletionRepository,
+                                    FileStorageService fileStorageService,
+                                    BlobReferenceService blobReferenceService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${file.deletion-outbox.batch-size:100}") int batchSize,
+                                    @Value("${file.deletion-outbox.max-attempts:10}") int maxAttempts) {
+        this.fileDeletionRepository = fileDeletionRepository;
+        this.fileStorageService = fileStorageService;
+        this.blobReferenceService = blobReferenceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${file.deletion-outbox.interval-ms:2000}")
+    public synchronized void drain() {
+        List<FileDeletion> batch;
+        do {
+            batch = fileDeletionRepository.findByNextAttemptAtLessThanEqualOrderByIdAsc(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            batch.forEach(this::process);
+        } while (batch.size() == batchSize);
+    }
+
+    private void process(FileDeletion deletion) {
+        String fileUrl = deletion.getFileUrl();
+        try {
+            String fileName = fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (fileStorageService.isContentAddressed()) {
+                    if (blobReferenceService.releaseReference(fileName)) {
+                        removeAfterCommit(fileName);
+                    }
+                } else if (fileStorageService.fileExists(fileName)) {
+                    // Already gone counts as done, so a retry after a partial failure is harmless
+                    fileStorageService.deleteFile(fileUrl);
+                    filesDeleted.incrementAndGet();
+                }
+                fileDeletionRepository.delete(deletion);
+            });
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            int attempts = deletion.getAttempts() + 1;
+            deletion.setAttempts(attempts);
+            String error = String.valueOf(e.getMessage());
+            deletion.setLastError(error.length() > 1024 ? error.substring(0, 1024) : error);
+            if (attempts >= maxAttempts) {
+                deletion.setNextAttemptAt(null);
+                logger.error("Giving up deleting {} after {} attempts", fileUrl, attempts, e);
+            } else {
+                long backoff = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(attempts, 20));
+                deletion.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoff));
+                logger.warn("Could not delete {} (attempt {}), retrying in {}s", fileUrl, attempts, backoff);
+            }
+            fileDeletionRepository.save(deletion);
+        }
+    }
+
+    private void removeAfterCommit(String fileName) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    if (blobReferenceService.removeIfUnreferenced(fileName)) {
+                        filesDeleted.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    logger.warn("Could not delete unreferenced blob {}, leaving it to the orphan reconciler",
+                            fileName, e);
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", fileDeletionRepository.count());
+        stats.put("parked", fileDeletionRepository.countByNextAttemptAtIsNull());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+}
@@ -0,0 +1,155 @@
+package com.petconnect.service;
+
+import com.petconnect.repository.StoredFileRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds uploads that look unused in {@code .quarantine/} under the upload directory, where they
+ * no longer resolve but can still be restored until they are purged.
+ */
+@Service
+public class FileQuarantineService {
+
+    private final FileStorageService fileStorageService;
+    private final StoredFileRepository storedFileRepository;
+    private final PackedBlobStore packedBlobStore;
+    private final ImageDerivativeService imageDerivativeService;
+
+    public FileQuarantineService(FileStorageService fileStorageService,
+                                 StoredFileRepository storedFileRepository,
+                                 PackedBlobStore packedBlobStore,
+                                 ImageDerivativeService imageDerivativeService) {
+        this.fileStorageService = fileStorageService;
+        this.storedFileRepository = storedFileRepository;
+        this.packedBlobStore = packedBlobStore;
+        this.imageDerivativeService = imageDerivativeService;
+    }
+
+    /**
+     * Moves an upload out of the store into {@code .quarantine/}, stamping it with the time of
+     * quarantine. It stops resolving immediately but can be restored until it is purged.
+     *
+     * <p>{@code referenced} is checked again under the name's lock, since the caller's view of
+     * which names are in use may be stale by the time the file is moved.
+     *
+     * @return whether the file was quarantined
+     */
+    public boolean quarantineFile(String fileName, Predicate<String> referenced) {
+        synchronized (fileStorageService.lockFor(fileName)) {
+            if (referenced.test(fileName)) {
+                return false;
+            }
+            Path source = fileStorageService.unindex(fileName);
+            if (source == null) {
+                return quarantinePacked(fileName);
+            }
+            try {
+                Path target = quarantineLocation().resolve(fileName);
+                Files.createDirectories(target.getParent());
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            } catch (IOException ex) {
+                fileStorageService.reindex(fileName, source);
+                throw new RuntimeException("Could not quarantine file " + fileName, ex);
+            }
+        }
+        imageDerivativeService.deleteVariants(fileName);
+        return true;
+    }
+
+    /**
+     * Quarantined packed blobs are written out as ordinary files, so restoring one makes it
+     * file-backed.
+     */
+    private boolean quarantinePacked(String fileName) {
+        try {
+            PackedBlobStore.Blob blob = packedBlobStore.read(fileName);
+            if (blob == null) {
+                return false;
+            }
+            Path target = quarantineLocation().resolve(fileName);
+            Files.createDirectories(target.getParent());
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer data = blob.data();
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            packedBlobStore.delete(fileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not quarantine file " + fileName, ex);
+        }
+        imageDerivativeService.deleteVariants(fileName);
+        return true;
+    }
+
+    /**
+     * @return quarantined uploads
+     */
+    public List<Path> listQuarantinedFiles() {
+        if (!Files.isDirectory(quarantineLocation())) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(quarantineLocation())) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not list quarantined files", ex);
+        }
+    }
+
+    /**
+     * Puts a quarantined upload back into the store under its original name.
+     */
+    public void restoreFile(String fileName) {
+        synchronized (fileStorageService.lockFor(fileName)) {
+            try {
+                fileStorageService.place(quarantineLocation().resolve(fileName), fileName);
+            } catch (IOException ex) {
+                throw new RuntimeException("Could not restore file " + fileName, ex);
+            }
+        }
+        fileStorageService.scheduleDerivatives(fileName);
+    }
+
+    /**
+     * Permanently deletes a quarantined upload.
+     *
+     * @return the number of bytes reclaimed
+     */
+    public long purgeQuarantinedFile(String fileName) {
+        Path file = quarantineLocation().resolve(fileName);
+        synchronized (fileStorageService.lockFor(fileName)) {
+            try {
+                long size = Files.size(file);
+                Files.delete(file);
+                // The same content may have been uploaded again since it was quarantined
+                if (fileStorageService.isContentAddressed() && !fileStorageService.fileExists(fileName)) {
+                    storedFileRepository.deleteById(fileName);
+                }
+                return size;
+            } catch (IOException ex) {
+                throw new RuntimeException("Could not delete file " + fileName, ex);
+            }
+        }
+    }
+
+    private Path quarantineLocation() {
+        return fileStorageService.storageLocation().resolve(".quarantine");
+    }
+}
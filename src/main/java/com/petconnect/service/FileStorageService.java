@@ -1,88 +1,664 @@
 package com.petconnect.service;
 
+import com.petconnect.model.StoredFile;
+import com.petconnect.repository.StoredFileRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+
     private final Path fileStorageLocation;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ThreadPoolExecutor uploadExecutor;
+    private final StoredFileRepository storedFileRepository;
+    private final PackedBlobStore packedBlobStore;
+    private final boolean contentAddressed;
+    private final boolean sharded;
+    // Every stored name and where it lives, so lookups rarely touch the directory tree; a miss
+    // falls back to disk because another instance may share the upload directory
+    private final ConcurrentHashMap<String, Path> fileIndex = new ConcurrentHashMap<>();
+    // Serialises store/delete/move of the same name within this instance
+    private final Object[] nameLocks = new Object[64];
+    // Flat copies left behind by an interrupted migration; the shard copy is the indexed one
+    private final List<Path> flatDuplicates = new ArrayList<>();
+
+    @Value("${file.shard-migration.batch-size:500}")
+    private int migrationBatchSize = 500;
 
-    public FileStorageService(@Value("${file.upload-dir}") String uploadDir) {
+    @Value("${file.shard-migration.pause-ms:1000}")
+    private long migrationPauseMs = 1000;
+
+    public FileStorageService(@Value("${file.upload-dir}") String uploadDir,
+                              @Value("${file.upload-threads:4}") int uploadThreads,
+                              @Value("${file.content-addressed:false}") boolean contentAddressed,
+                              @Value("${file.sharded:true}") boolean sharded,
+                              ImageDerivativeService imageDerivativeService,
+                              StoredFileRepository storedFileRepository,
+                              PackedBlobStore packedBlobStore) {
         this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.imageDerivativeService = imageDerivativeService;
+        this.storedFileRepository = storedFileRepository;
+        this.packedBlobStore = packedBlobStore;
+        this.contentAddressed = contentAddressed;
+        this.sharded = sharded;
+        for (int i = 0; i < nameLocks.length; i++) {
+            nameLocks[i] = new Object();
+        }
         try {
             Files.createDirectories(this.fileStorageLocation);
         } catch (IOException ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
+        loadIndex();
+        AtomicInteger threads = new AtomicInteger();
+        // When the queue is full the request thread writes its own files, which throttles uploads
+        this.uploadExecutor = new ThreadPoolExecutor(uploadThreads, uploadThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(uploadThreads * 16), runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
     public String storeFile(MultipartFile file) {
+        String fileName = writeFile(file);
+        scheduleDerivatives(fileName);
+        return uploadsBaseUrl() + fileName;
+    }
+
+    /**
+     * Stores a file that was already written completely inside the upload directory, such as an
+     * assembled resumable upload, by moving it into place rather than copying it.
+     */
+    public String storeFile(Path source, String originalFileName) {
+        if (originalFileName == null || !originalFileName.contains(".")) {
+            throw new RuntimeException("Failed to store file without an extension.");
+        }
+        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
         try {
-            // Null checks and validation
-            if (file == null || file.isEmpty()) {
-                throw new RuntimeException("Failed to store empty file.");
+            if (packedBlobStore.accepts(Files.size(source))) {
+                String fileName = pack(Files.readAllBytes(source), fileExtension);
+                Files.delete(source);
+                scheduleDerivatives(fileName);
+                return uploadsBaseUrl() + fileName;
             }
-
-            // Generate unique filename
-            String originalFileName = Objects.requireNonNull(file.getOriginalFilename());
-            String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
-            String fileName = UUID.randomUUID().toString() + fileExtension;
-            
-            // Save file
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-            
-            // Generate URL using ServletUriComponentsBuilder
-            return ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/uploads/")
-                    .path(fileName)
-                    .toUriString();
+            force(source);
+            String fileName;
+            if (contentAddressed) {
+                fileName = digestName(source, fileExtension);
+                retainBlob(source, fileName);
+                // Left behind when the content was already stored
+                Files.deleteIfExists(source);
+            } else {
+                fileName = UUID.randomUUID().toString() + fileExtension;
+                place(source, fileName);
+            }
+            scheduleDerivatives(fileName);
+            return uploadsBaseUrl() + fileName;
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + file.getOriginalFilename() + ". Please try again!", ex);
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
         }
     }
 
+    /**
+     * Stores all files concurrently. Either every file ends up durable on disk and its URL is
+     * returned in input order, or none is kept and the first failure is rethrown.
+     */
     public List<String> storeFiles(List<MultipartFile> files) {
-        List<String> fileUrls = new ArrayList<>();
-        
+        // Resolved here because the request context is not visible on the upload threads
+        String baseUrl = uploadsBaseUrl();
+        List<CompletableFuture<String>> writes = new ArrayList<>();
         for (MultipartFile file : files) {
-            String fileUrl = storeFile(file);
-            fileUrls.add(fileUrl);
+            writes.add(CompletableFuture.supplyAsync(() -> writeFile(file), uploadExecutor));
+        }
+
+        List<String> fileNames = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<String> write : writes) {
+            try {
+                fileNames.add(write.join());
+            } catch (CompletionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof RuntimeException cause ? cause : ex;
+                }
+            }
+        }
+        if (failure != null) {
+            discardFiles(fileNames);
+            throw failure;
+        }
+
+        List<String> fileUrls = new ArrayList<>();
+        for (String fileName : fileNames) {
+            scheduleDerivatives(fileName);
+            fileUrls.add(baseUrl + fileName);
         }
-        
         return fileUrls;
     }
 
+    /**
+     * Best-effort removal of files stored for an operation that did not complete.
+     */
+    public void discardFiles(List<String> fileUrls) {
+        for (String fileUrl : fileUrls) {
+            try {
+                deleteFile(fileUrl);
+            } catch (RuntimeException ex) {
+                logger.warn("Could not discard {}", fileUrl, ex);
+            }
+        }
+    }
+
+    /**
+     * Writes the upload to a temp file in the upload directory, forces it to disk and renames it
+     * into place, so a stored name never refers to a partial file.
+     *
+     * <p>In content-addressed mode the name is the SHA-256 of the content, computed while the
+     * upload is written. A blob that is already stored only gains a reference.
+     *
+     * @return the stored file name
+     */
+    private String writeFile(MultipartFile file) {
+        // Null checks and validation
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Failed to store empty file.");
+        }
+
+        String originalFileName = Objects.requireNonNull(file.getOriginalFilename());
+        String fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
+
+        Path tempFile = null;
+        try {
+            if (packedBlobStore.accepts(file.getSize())) {
+                return pack(file.getBytes(), fileExtension);
+            }
+            tempFile = Files.createTempFile(fileStorageLocation, ".upload-", ".tmp");
+            if (!contentAddressed) {
+                // Generate unique filename
+                String fileName = UUID.randomUUID().toString() + fileExtension;
+                // Lets the container move a part it already buffered on disk instead of copying it
+                file.transferTo(tempFile.toFile());
+                force(tempFile);
+                place(tempFile, fileName);
+                return fileName;
+            }
+
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            force(tempFile);
+            String fileName = HexFormat.of().formatHex(digest.digest()) + fileExtension.toLowerCase(Locale.ROOT);
+            retainBlob(tempFile, fileName);
+            return fileName;
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ex) {
+                    logger.warn("Could not remove temp file {}", tempFile, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves a fully written temp file into place as {@code fileName} unless that blob already
+     * exists, and records one more reference to it.
+     */
+    private void retainBlob(Path tempFile, String fileName) throws IOException {
+        synchronized (lockFor(fileName)) {
+            long size = Files.size(tempFile);
+            if (!fileExists(fileName)) {
+                place(tempFile, fileName);
+            }
+            addReference(fileName, size);
+        }
+    }
+
+    /**
+     * Stores a small upload in the packed blob store instead of as its own file, under the same
+     * kind of name a file would get.
+     *
+     * @return the stored name
+     */
+    private String pack(byte[] data, String fileExtension) throws IOException {
+        if (!contentAddressed) {
+            String fileName = UUID.randomUUID().toString() + fileExtension;
+            packedBlobStore.put(fileName, data);
+            return fileName;
+        }
+        String fileName = digestName(ByteBuffer.wrap(data), fileExtension);
+        synchronized (lockFor(fileName)) {
+            if (!fileExists(fileName)) {
+                packedBlobStore.put(fileName, data);
+            }
+            addReference(fileName, data.length);
+        }
+        return fileName;
+    }
+
+    private void addReference(String fileName, long size) {
+        if (storedFileRepository.incrementRefCount(fileName) == 0) {
+            storedFileRepository.save(new StoredFile(fileName, 1, size));
+        }
+    }
+
+    static String digestName(Path file, String extension) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest()) + extension.toLowerCase(Locale.ROOT);
+    }
+
+    static String digestName(ByteBuffer data, String extension) {
+        MessageDigest digest = sha256();
+        digest.update(data);
+        return HexFormat.of().formatHex(digest.digest()) + extension.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return names of all stored uploads
+     */
+    public List<String> listStoredFiles() {
+        List<String> names = new ArrayList<>(fileIndex.keySet());
+        names.addAll(packedBlobStore.names());
+        return names;
+    }
+
+    /**
+     * @return when the upload was stored (files: last modified), or {@code null} if unknown
+     */
+    public Instant lastModified(String fileName) {
+        try {
+            Path file = resolveFile(fileName);
+            if (file != null) {
+                return Files.getLastModifiedTime(file).toInstant();
+            }
+            PackedBlobStore.Blob blob = packedBlobStore.read(fileName);
+            return blob != null ? Instant.ofEpochMilli(blob.storedAt()) : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    Path storageLocation() {
+        return fileStorageLocation;
+    }
+
+    /**
+     * Drops {@code fileName} from the index so it stops resolving, e.g. before moving it away.
+     *
+     * @return where it was stored, or {@code null} if it is not a file in the index
+     */
+    Path unindex(String fileName) {
+        return fileIndex.remove(fileName);
+    }
+
+    void reindex(String fileName, Path file) {
+        fileIndex.put(fileName, file);
+    }
+
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
+    /**
+     * Fans uploads out over two levels of hex directories (65,536 leaves) chosen by a hash of the
+     * name, so no single directory grows past a few entries per thousand files stored.
+     */
+    public static Path shardPath(Path root, String fileName) {
+        CRC32 crc = new CRC32();
+        crc.update(fileName.getBytes(StandardCharsets.UTF_8));
+        long hash = crc.getValue();
+        return root.resolve(String.format("%02x", (hash >>> 24) & 0xff))
+                .resolve(String.format("%02x", (hash >>> 16) & 0xff))
+                .resolve(fileName);
+    }
+
+    void scheduleDerivatives(String fileName) {
+        Path file = fileIndex.get(fileName);
+        if (file != null) {
+            imageDerivativeService.schedule(file);
+        } else if (packedBlobStore.contains(fileName)) {
+            imageDerivativeService.schedule(fileName, () -> new ByteArrayInputStream(readPackedBytes(fileName)));
+        }
+    }
+
+    byte[] readPackedBytes(String fileName) throws IOException {
+        PackedBlobStore.Blob blob = packedBlobStore.read(fileName);
+        if (blob == null) {
+            throw new FileNotFoundException(fileName);
+        }
+        byte[] bytes = new byte[blob.data().remaining()];
+        blob.data().get(bytes);
+        return bytes;
+    }
+
+    private Path pathFor(String fileName) {
+        return sharded ? shardPath(fileStorageLocation, fileName) : fileStorageLocation.resolve(fileName);
+    }
+
+    /**
+     * Moves a fully written file to its final location and records it in the index.
+     */
+    void place(Path source, String fileName) throws IOException {
+        Path target = pathFor(fileName);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        fileIndex.put(fileName, target);
+    }
+
+    /**
+     * Indexes flat (legacy) and sharded uploads. Derived variants and temp files are skipped; a
+     * name present in both layouts, left by an interrupted migration, resolves to the shard.
+     */
+    private void loadIndex() {
+        try (Stream<Path> files = Files.walk(fileStorageLocation, 3)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                Path relative = fileStorageLocation.relativize(file);
+                String fileName = file.getFileName().toString();
+                if (fileName.startsWith(".")) {
+                    return;
+                }
+                if (relative.getNameCount() == 1) {
+                    if (fileIndex.putIfAbsent(fileName, file) != null) {
+                        flatDuplicates.add(file);
+                    }
+                } else if (relative.getNameCount() == 3
+                        && SHARD_DIRECTORY.matcher(relative.getName(0).toString()).matches()
+                        && SHARD_DIRECTORY.matcher(relative.getName(1).toString()).matches()) {
+                    Path previous = fileIndex.put(fileName, file);
+                    if (previous != null && previous.getParent().equals(fileStorageLocation)) {
+                        flatDuplicates.add(previous);
+                    }
+                }
+            });
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not index the upload directory", ex);
+        }
+        logger.info("Indexed {} stored uploads", fileIndex.size());
+    }
+
+    /**
+     * Moves uploads still in the flat layout into their shards in the background, without
+     * blocking startup or requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startShardMigration() {
+        if (!sharded) {
+            return;
+        }
+        List<String> flatFiles = fileIndex.entrySet().stream()
+                .filter(entry -> entry.getValue().getParent().equals(fileStorageLocation))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (flatFiles.isEmpty() && flatDuplicates.isEmpty()) {
+            return;
+        }
+        List<Path> duplicates = new ArrayList<>(flatDuplicates);
+        flatDuplicates.clear();
+        Thread migration = new Thread(() -> {
+            removeFlatDuplicates(duplicates);
+            migrateToShards(flatFiles);
+        }, "upload-shard-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    /**
+     * Each file is hard-linked into its shard before the index switches over, and the flat
+     * link is only removed after a pause. A request that resolved the old path just before the
+     * switch can still open it. Names are unchanged, so existing URLs keep working throughout.
+     */
+    void migrateToShards(List<String> fileNames) {
+        logger.info("Moving {} uploads into the sharded layout", fileNames.size());
+        int moved = 0;
+        int batchSize = Math.max(1, migrationBatchSize);
+        for (int from = 0; from < fileNames.size(); from += batchSize) {
+            List<Path> retired = new ArrayList<>();
+            for (String fileName : fileNames.subList(from, Math.min(fileNames.size(), from + batchSize))) {
+                synchronized (lockFor(fileName)) {
+                    Path current = fileIndex.get(fileName);
+                    // Deleted or re-stored since the migration started
+                    if (current == null || !current.getParent().equals(fileStorageLocation)) {
+                        continue;
+                    }
+                    Path target = shardPath(fileStorageLocation, fileName);
+                    try {
+                        Files.createDirectories(target.getParent());
+                        if (link(current, target)) {
+                            retired.add(current);
+                        } else {
+                            Files.move(current, target, StandardCopyOption.ATOMIC_MOVE);
+                        }
+                        fileIndex.put(fileName, target);
+                        moved++;
+                    } catch (IOException ex) {
+                        logger.warn("Could not move {} into its shard", fileName, ex);
+                    }
+                }
+            }
+            try {
+                Thread.sleep(migrationPauseMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (Path flat : retired) {
+                try {
+                    Files.deleteIfExists(flat);
+                } catch (IOException ex) {
+                    logger.warn("Could not remove migrated file {}", flat, ex);
+                }
+            }
+        }
+        logger.info("Moved {} uploads into the sharded layout", moved);
+    }
+
+    /**
+     * Deletes flat copies whose shard copy is already indexed. Nothing resolves to them, so
+     * they can go without the pause {@link #migrateToShards} gives live files.
+     */
+    private void removeFlatDuplicates(List<Path> duplicates) {
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        logger.info("Removing {} flat copies left by an earlier migration", duplicates.size());
+        for (Path flat : duplicates) {
+            String fileName = flat.getFileName().toString();
+            synchronized (lockFor(fileName)) {
+                if (flat.equals(fileIndex.get(fileName))) {
+                    continue;
+                }
+                try {
+                    Files.deleteIfExists(flat);
+                } catch (IOException ex) {
+                    logger.warn("Could not remove migrated file {}", flat, ex);
+                }
+            }
+        }
+    }
+
+    private static boolean link(Path existing, Path link) throws IOException {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException ex) {
+            return false;
+        }
+    }
+
+    Object lockFor(String fileName) {
+        return nameLocks[Math.floorMod(fileName.hashCode(), nameLocks.length)];
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String uploadsBaseUrl() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/uploads/")
+                .toUriString();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * Deletes the file behind {@code fileUrl}. A content-addressed blob that is still referenced
+     * elsewhere only loses one reference; files without a reference count are deleted outright.
+     */
     public void deleteFile(String fileUrl) {
+        String fileName = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+        if (!contentAddressed) {
+            removeFile(fileName);
+            return;
+        }
+        synchronized (lockFor(fileName)) {
+            if (storedFileRepository.decrementRefCount(fileName) > 0) {
+                return;
+            }
+            storedFileRepository.findById(fileName).ifPresent(storedFileRepository::delete);
+            removeFile(fileName);
+        }
+    }
+
+    void removeFile(String fileName) {
         try {
-            String fileName = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            if (!Files.deleteIfExists(targetLocation)) {
+            if (packedBlobStore.delete(fileName)) {
+                imageDerivativeService.deleteVariants(fileName);
+                return;
+            }
+            resolveFile(fileName);
+            Path targetLocation = fileIndex.remove(fileName);
+            if (targetLocation == null || !Files.deleteIfExists(targetLocation)) {
                 throw new RuntimeException("File not found: " + fileName);
             }
+            imageDerivativeService.deleteVariants(fileName);
         } catch (IOException ex) {
             throw new RuntimeException("Could not delete file. Please try again!", ex);
         }
     }
 
-    public boolean fileExists(String filename) {
+    /**
+     * @return the stored file for {@code filename}, or {@code null} if there is none or the
+     *         name would escape the upload directory
+     */
+    public Path resolveFile(String filename) {
         if (filename == null) {
-            return false;
+            return null;
         }
-        Path filePath = fileStorageLocation.resolve(filename);
-        return Files.exists(filePath);
+        Path indexed = fileIndex.get(filename);
+        return indexed != null ? indexed : indexFromDisk(filename);
+    }
+
+    /**
+     * Picks up a file stored by another instance sharing the upload directory. Only plain names
+     * are looked up, so path tricks like "../" never reach the filesystem.
+     */
+    private Path indexFromDisk(String fileName) {
+        if (fileName.isEmpty() || fileName.startsWith(".") || fileName.indexOf('/') >= 0
+                || fileName.indexOf('\\') >= 0 || fileName.indexOf('\0') >= 0) {
+            return null;
+        }
+        Path file = pathFor(fileName);
+        if (!file.normalize().startsWith(fileStorageLocation) || !Files.isRegularFile(file)) {
+            return null;
+        }
+        Path previous = fileIndex.putIfAbsent(fileName, file);
+        return previous != null ? previous : file;
+    }
+
+    /**
+     * @return the resized variant of {@code filename} for {@code width}, or {@code null} if none
+     *         has been generated
+     */
+    public Path resolveVariant(String filename, int width) {
+        return fileExists(filename) ? imageDerivativeService.resolveVariant(filename, width) : null;
+    }
+
+    /**
+     * @return the upload if it lives in the packed blob store, otherwise {@code null}
+     */
+    public PackedBlobStore.Blob readPacked(String filename) {
+        try {
+            return filename == null ? null : packedBlobStore.read(filename);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read file " + filename, ex);
+        }
+    }
+
+    public boolean fileExists(String filename) {
+        return filename != null && (fileIndex.containsKey(filename) || packedBlobStore.contains(filename)
+                || indexFromDisk(filename) != null);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,228 @@
+package com.petconnect.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces resized copies of uploaded photos so listing grids don't download originals.
+ *
+ * <p>Each upload is decoded once on a bounded worker pool and scaled down to every configured
+ * width smaller than the original, each step starting from the previous (larger) result. Variants
+ * are re-encoded without the source metadata and written to {@code derived/w<width>/}, sharded
+ * like the originals, under the upload directory. Until a variant exists, callers fall back to the original.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private static final Map<String, String> FORMATS = Map.of(
+            "jpg", "jpeg",
+            "jpeg", "jpeg",
+            "png", "png");
+
+    private final Path derivedLocation;
+    private final int[] widths;
+    private final float jpegQuality;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+
+    public ImageDerivativeService(@Value("${file.upload-dir}") String uploadDir,
+                                  @Value("${pets.images.derivative-widths:160,320,640,1280}") int[] widths,
+                                  @Value("${pets.images.jpeg-quality:0.8}") float jpegQuality,
+                                  @Value("${pets.images.workers:2}") int workers,
+                                  @Value("${pets.images.queue-capacity:200}") int queueCapacity,
+                                  @Value("${pets.images.max-pixels:40000000}") long maxPixels) {
+        this.derivedLocation = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("derived");
+        this.widths = Arrays.stream(widths).sorted().distinct().toArray();
+        this.jpegQuality = jpegQuality;
+        this.maxPixels = maxPixels;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues variant generation for a stored file. If the queue is full the upload still
+     * succeeds and the original keeps being served.
+     */
+    public void schedule(Path original) {
+        schedule(original.getFileName().toString(), () -> Files.newInputStream(original));
+    }
+
+    /**
+     * Same as {@link #schedule(Path)} for an upload that is not stored as its own file.
+     */
+    public void schedule(String filename, InputStreamSource original) {
+        if (formatOf(filename) == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> generate(filename, original));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image derivative queue full, skipping variants for {}", filename);
+        }
+    }
+
+    /**
+     * @return the generated variant best suited for {@code width} (the smallest configured width
+     *         at least as wide), or {@code null} if none is ready
+     */
+    public Path resolveVariant(String filename, int width) {
+        for (int candidate : widths) {
+            if (candidate >= width) {
+                Path variant = variantPath(filename, candidate);
+                if (Files.isRegularFile(variant)) {
+                    return variant;
+                }
+                Path legacy = legacyVariantPath(filename, candidate);
+                return Files.isRegularFile(legacy) ? legacy : null;
+            }
+        }
+        return null;
+    }
+
+    public void deleteVariants(String filename) {
+        for (int width : widths) {
+            try {
+                Files.deleteIfExists(variantPath(filename, width));
+                Files.deleteIfExists(legacyVariantPath(filename, width));
+            } catch (IOException e) {
+                logger.warn("Could not delete {}px variant of {}", width, filename, e);
+            }
+        }
+    }
+
+    void generate(String filename, InputStreamSource original) {
+        String format = formatOf(filename);
+        try (InputStream in = original.getInputStream();
+             ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                logger.debug("No image reader for {}, serving original only", filename);
+                return;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage image;
+            try {
+                reader.setInput(input, true, true);
+                // Dimensions come from the header; a tiny file can declare a huge canvas
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Skipping variants for {}: {} pixels exceeds the {} limit", filename, pixels, maxPixels);
+                    return;
+                }
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+            // Largest first, so each variant is scaled from the previous one instead of the original
+            for (int i = widths.length - 1; i >= 0; i--) {
+                int width = widths[i];
+                if (width >= image.getWidth()) {
+                    continue;
+                }
+                image = scale(image, width, "jpeg".equals(format));
+                write(image, format, variantPath(filename, width));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate variants for {}", filename, e);
+        }
+    }
+
+    private Path variantPath(String filename, int width) {
+        return FileStorageService.shardPath(derivedLocation.resolve("w" + width), filename);
+    }
+
+    // Variants written before the sharded layout
+    private Path legacyVariantPath(String filename, int width) {
+        return derivedLocation.resolve("w" + width).resolve(filename);
+    }
+
+    private BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int height = Math.max(1, Math.round((float) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        Path temp = Files.createTempFile(target.getParent(), "variant", ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                }
+                // No metadata is passed on, so EXIF/ICC blocks from the upload are dropped
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String formatOf(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? null : FORMATS.get(filename.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,164 @@
+package com.petconnect.service;
+
+import com.petconnect.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds uploads that no pet references (a failed registration, or a file sent to
+ * {@code /api/upload} and never used) and reclaims them.
+ *
+ * <p>A pass snapshots every image name in {@code pet_images} into a hash set, then walks the
+ * store one batch per tick so the disk and the shared scheduler thread are never busy for long.
+ * Unreferenced files older than {@code file.orphans.min-age} are quarantined rather than deleted.
+ * At the end of each pass, quarantined files are checked against a fresh snapshot: any that
+ * gained a reference are restored, and the rest are deleted once
+ * {@code file.orphans.grace-period} has passed.
+ */
+@Service
+public class OrphanFileReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(OrphanFileReconciler.class);
+
+    private final FileStorageService fileStorageService;
+    private final FileQuarantineService fileQuarantineService;
+    private final PetRepository petRepository;
+    private final int batchSize;
+    private final Duration minAge;
+    private final Duration gracePeriod;
+    private final Duration passInterval;
+
+    private List<String> pending = List.of();
+    private int position;
+    private Set<String> referenced = Set.of();
+    private Instant nextPass = Instant.EPOCH;
+
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong filesChecked = new AtomicLong();
+    private final AtomicLong filesQuarantined = new AtomicLong();
+    private final AtomicLong filesRestored = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile Instant lastPassCompleted;
+
+    public OrphanFileReconciler(FileStorageService fileStorageService,
+                                FileQuarantineService fileQuarantineService,
+                                PetRepository petRepository,
+                                @Value("${file.orphans.batch-size:200}") int batchSize,
+                                @Value("${file.orphans.min-age:24h}") Duration minAge,
+                                @Value("${file.orphans.grace-period:7d}") Duration gracePeriod,
+                                @Value("${file.orphans.pass-interval:6h}") Duration passInterval) {
+        this.fileStorageService = fileStorageService;
+        this.fileQuarantineService = fileQuarantineService;
+        this.petRepository = petRepository;
+        this.batchSize = Math.max(1, batchSize);
+        this.minAge = minAge;
+        this.gracePeriod = gracePeriod;
+        this.passInterval = passInterval;
+    }
+
+    @Scheduled(fixedDelayString = "${file.orphans.batch-interval-ms:10000}",
+            initialDelayString = "${file.orphans.initial-delay-ms:300000}")
+    public synchronized void reconcileBatch() {
+        if (position >= pending.size()) {
+            if (Instant.now().isBefore(nextPass)) {
+                return;
+            }
+            referenced = referencedNames();
+            pending = fileStorageService.listStoredFiles();
+            position = 0;
+        }
+
+        Instant cutoff = Instant.now().minus(minAge);
+        int end = Math.min(pending.size(), position + batchSize);
+        for (String fileName : pending.subList(position, end)) {
+            filesChecked.incrementAndGet();
+            if (!referenced.contains(fileName) && olderThan(fileName, cutoff)
+                    && fileQuarantineService.quarantineFile(fileName, this::isReferenced)) {
+                filesQuarantined.incrementAndGet();
+                logger.info("Quarantined unreferenced upload {}", fileName);
+            }
+        }
+        position = end;
+
+        if (position >= pending.size()) {
+            purgeQuarantine();
+            pending = List.of();
+            referenced = Set.of();
+            passes.incrementAndGet();
+            lastPassCompleted = Instant.now();
+            nextPass = lastPassCompleted.plus(passInterval);
+        }
+    }
+
+    private void purgeQuarantine() {
+        List<Path> quarantined = fileQuarantineService.listQuarantinedFiles();
+        if (quarantined.isEmpty()) {
+            return;
+        }
+        Set<String> current = referencedNames();
+        Instant expiry = Instant.now().minus(gracePeriod);
+        for (Path file : quarantined) {
+            String fileName = file.getFileName().toString();
+            try {
+                if (current.contains(fileName)) {
+                    fileQuarantineService.restoreFile(fileName);
+                    filesRestored.incrementAndGet();
+                    logger.info("Restored quarantined upload {} that is referenced again", fileName);
+                } else if (Files.getLastModifiedTime(file).toInstant().isBefore(expiry)) {
+                    bytesReclaimed.addAndGet(fileQuarantineService.purgeQuarantinedFile(fileName));
+                    filesDeleted.incrementAndGet();
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not reconcile quarantined upload {}", fileName, e);
+            }
+        }
+    }
+
+    private Set<String> referencedNames() {
+        List<String> urls = petRepository.findAllImageUrls();
+        Set<String> names = new HashSet<>(urls.size() * 2);
+        for (String url : urls) {
+            if (url != null) {
+                names.add(url.substring(url.lastIndexOf('/') + 1));
+            }
+        }
+        return names;
+    }
+
+    private boolean isReferenced(String fileName) {
+        return petRepository.countImageReferences(fileName) > 0;
+    }
+
+    private boolean olderThan(String fileName, Instant cutoff) {
+        Instant lastModified = fileStorageService.lastModified(fileName);
+        return lastModified != null && lastModified.isBefore(cutoff);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("passes", passes.get());
+        stats.put("lastPassCompleted", lastPassCompleted != null ? lastPassCompleted.toString() : null);
+        stats.put("filesChecked", filesChecked.get());
+        stats.put("filesQuarantined", filesQuarantined.get());
+        stats.put("filesRestored", filesRestored.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("quarantinedNow", fileQuarantineService.listQuarantinedFiles().size());
+        return stats;
+    }
+}
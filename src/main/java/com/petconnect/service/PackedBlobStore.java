@@ -0,0 +1,451 @@
+package com.petconnect.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store for small uploads. Instead of one file per photo, blobs are appended to large
+ * segment files under {@code .packs/} in the upload directory, and an in-memory index maps each
+ * name to its segment and offset. Stored names and URLs look exactly like file-backed uploads.
+ *
+ * <p>Record layout: {@code magic:int, type:byte, nameLength:short, length:int, storedAt:long,
+ * name, payload, crc32:int}, where the CRC covers everything before it. A PUT record's payload
+ * is the blob. A DELETE record (tombstone) carries the segment and offset of the PUT it deletes,
+ * so replaying segments in order never drops a newer PUT of the same name.
+ *
+ * <p>Sealed segments are read through read-only memory maps; the active segment is still growing
+ * and is read with positional reads. The compactor copies the live blobs of mostly dead sealed
+ * segments into the active segment, carries forward tombstones that still shadow older
+ * segments, and deletes the old file. Its memory map is left to the garbage collector: blobs
+ * handed out as slices of it may still be streaming to slow clients, and touching an unmapped
+ * buffer crashes the JVM instead of throwing.
+ */
+@Service
+public class PackedBlobStore {
+    private static final Logger logger = LoggerFactory.getLogger(PackedBlobStore.class);
+
+    private static final int MAGIC = 0x50424c42;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 4 + 1 + 2 + 4 + 8;
+    private static final int TOMBSTONE_PAYLOAD = 8 + 8;
+    private static final int TRAILER = 4;
+
+    private final boolean enabled;
+    private final Path packLocation;
+    private final long maxBlobSize;
+    private final long segmentSize;
+    private final double compactionThreshold;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
+    private volatile Segment active;
+
+    private final AtomicLong segmentsCompacted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+
+    public PackedBlobStore(@Value("${file.upload-dir}") String uploadDir,
+                           @Value("${file.packed.enabled:false}") boolean enabled,
+                           @Value("${file.packed.max-blob-size:256KB}") DataSize maxBlobSize,
+                           @Value("${file.packed.segment-size:256MB}") DataSize segmentSize,
+                           @Value("${file.packed.compaction-threshold:0.5}") double compactionThreshold) {
+        this.enabled = enabled;
+        this.packLocation = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".packs");
+        this.maxBlobSize = maxBlobSize.toBytes();
+        // Sealed segments are mapped in one piece, which caps them at 2 GB
+        this.segmentSize = Math.min(segmentSize.toBytes(), Integer.MAX_VALUE);
+        this.compactionThreshold = compactionThreshold;
+        if (enabled) {
+            open();
+        }
+    }
+
+    /**
+     * @return whether a blob of {@code size} bytes should be packed rather than stored as a file
+     */
+    public boolean accepts(long size) {
+        return enabled && size <= maxBlobSize;
+    }
+
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    public List<String> names() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    public void put(String name, byte[] data) throws IOException {
+        put(name, data, System.currentTimeMillis());
+    }
+
+    private void put(String name, byte[] data, long storedAt) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = record(PUT, nameBytes, data.length, storedAt);
+        record.put(data);
+        synchronized (writeLock) {
+            long position = append(record);
+            Location previous = index.put(name,
+                    new Location(active.id, position + HEADER + nameBytes.length, data.length, storedAt));
+            active.liveBytes.addAndGet(record.limit());
+            if (previous != null) {
+                release(previous, nameBytes.length);
+            }
+        }
+    }
+
+    /**
+     * @return whether the blob existed
+     */
+    public boolean delete(String name) throws IOException {
+        synchronized (writeLock) {
+            Location location = index.get(name);
+            if (location == null) {
+                return false;
+            }
+            appendTombstone(name, location.segment, location.offset);
+            index.remove(name);
+            release(location, name.getBytes(StandardCharsets.UTF_8).length);
+            return true;
+        }
+    }
+
+    /**
+     * @return a read-only view of the blob, or {@code null} if it is not stored here
+     */
+    public Blob read(String name) throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Location location = index.get(name);
+            if (location == null) {
+                return null;
+            }
+            Segment segment = segments.get(location.segment);
+            // Compacted away between the two lookups; the index already points at the copy
+            if (segment == null) {
+                continue;
+            }
+            return new Blob(segment.read(location.offset, location.length), location.storedAt);
+        }
+        return null;
+    }
+
+    private void appendTombstone(String name, long targetSegment, long targetOffset) throws IOException {
+        ByteBuffer record = record(DELETE, name.getBytes(StandardCharsets.UTF_8), TOMBSTONE_PAYLOAD,
+                System.currentTimeMillis());
+        record.putLong(targetSegment).putLong(targetOffset);
+        append(record);
+    }
+
+    private static ByteBuffer record(byte type, byte[] nameBytes, int payloadLength, long storedAt) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER + nameBytes.length + payloadLength + TRAILER);
+        return record.putInt(MAGIC).put(type).putShort((short) nameBytes.length).putInt(payloadLength)
+                .putLong(storedAt).put(nameBytes);
+    }
+
+    /**
+     * Seals the record with its CRC and appends it to the active segment, rolling to a new
+     * segment when full. Caller holds {@link #writeLock}.
+     *
+     * @return the record's position in the active segment
+     */
+    private long append(ByteBuffer record) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue()).flip();
+        if (active.size > 0 && active.size + record.limit() > segmentSize) {
+            roll();
+        }
+        long position = active.size;
+        while (record.hasRemaining()) {
+            active.channel.write(record, position + record.position());
+        }
+        // Durable before the blob's URL is handed out
+        active.channel.force(false);
+        active.size += record.limit();
+        return position;
+    }
+
+    private void release(Location location, int nameLength) {
+        Segment segment = segments.get(location.segment);
+        if (segment != null) {
+            segment.liveBytes.addAndGet(-(long) (HEADER + nameLength + location.length + TRAILER));
+        }
+    }
+
+    private void roll() throws IOException {
+        active.seal();
+        Segment next = Segment.create(packLocation, active.id + 1);
+        segments.put(next.id, next);
+        active = next;
+    }
+
+    /**
+     * Rewrites sealed segments whose live fraction dropped below the threshold.
+     */
+    @Scheduled(fixedDelayString = "${file.packed.compaction-interval-ms:600000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || segment.size == 0
+                    || (double) segment.liveBytes.get() / segment.size >= compactionThreshold) {
+                continue;
+            }
+            try {
+                compact(segment);
+            } catch (IOException e) {
+                logger.warn("Could not compact segment {}", segment.id, e);
+            }
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        AtomicLong copiedBytes = new AtomicLong();
+        scan(segment, (type, name, position, payloadOffset, payloadLength, storedAt) -> {
+            if (type == PUT) {
+                ByteBuffer data = segment.read(payloadOffset, payloadLength);
+                byte[] bytes = new byte[data.remaining()];
+                data.get(bytes);
+                synchronized (writeLock) {
+                    // Still the live copy, i.e. not deleted or replaced since
+                    Location current = index.get(name);
+                    if (current != null && current.segment == segment.id && current.offset == payloadOffset) {
+                        put(name, bytes, storedAt);
+                        copiedBytes.addAndGet(HEADER + name.getBytes(StandardCharsets.UTF_8).length
+                                + payloadLength + TRAILER);
+                    }
+                }
+            } else {
+                ByteBuffer target = segment.read(payloadOffset, TOMBSTONE_PAYLOAD);
+                long targetSegment = target.getLong();
+                long targetOffset = target.getLong();
+                // Without it, the deleted PUT in the older segment would come back on replay
+                if (targetSegment != segment.id && segments.containsKey(targetSegment)) {
+                    synchronized (writeLock) {
+                        appendTombstone(name, targetSegment, targetOffset);
+                    }
+                }
+            }
+        });
+        segments.remove(segment.id);
+        segment.close();
+        Files.deleteIfExists(segment.path);
+        segmentsCompacted.incrementAndGet();
+        bytesReclaimed.addAndGet(Math.max(0, segment.size - copiedBytes.get()));
+        logger.info("Compacted segment {}, reclaimed {} bytes", segment.id, segment.size - copiedBytes.get());
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(packLocation);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(packLocation)) {
+                files = list.filter(path -> path.getFileName().toString().endsWith(".pack")).sorted().toList();
+            }
+            for (Path file : files) {
+                Segment segment = Segment.open(file);
+                segments.put(segment.id, segment);
+                replay(segment);
+            }
+            if (segments.isEmpty()) {
+                Segment first = Segment.create(packLocation, 1);
+                segments.put(first.id, first);
+            }
+            active = segments.lastEntry().getValue();
+            for (Segment segment : segments.values()) {
+                if (segment != active) {
+                    segment.seal();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open the packed blob store", e);
+        }
+        logger.info("Packed blob store: {} blobs in {} segments", index.size(), segments.size());
+    }
+
+    private void replay(Segment segment) throws IOException {
+        long end = scan(segment, (type, name, position, payloadOffset, payloadLength, storedAt) -> {
+            int nameLength = name.getBytes(StandardCharsets.UTF_8).length;
+            if (type == PUT) {
+                Location previous = index.put(name, new Location(segment.id, payloadOffset, payloadLength, storedAt));
+                segment.liveBytes.addAndGet(HEADER + nameLength + payloadLength + TRAILER);
+                if (previous != null) {
+                    release(previous, nameLength);
+                }
+            } else {
+                ByteBuffer target = segment.read(payloadOffset, TOMBSTONE_PAYLOAD);
+                long targetSegment = target.getLong();
+                long targetOffset = target.getLong();
+                Location current = index.get(name);
+                if (current != null && current.segment == targetSegment && current.offset == targetOffset) {
+                    index.remove(name);
+                    release(current, nameLength);
+                }
+            }
+        });
+        long fileSize = segment.channel.size();
+        if (end < fileSize) {
+            // A torn record from a crash mid-append; cut it so the next append starts cleanly
+            logger.warn("Truncating segment {} from {} to {} bytes", segment.id, fileSize, end);
+            segment.channel.truncate(end);
+        }
+        segment.size = end;
+    }
+
+    /**
+     * Visits every intact record of a segment in order, stopping at the first record that is
+     * incomplete or fails its CRC.
+     *
+     * @return the position just past the last intact record
+     */
+    private static long scan(Segment segment, RecordVisitor visitor) throws IOException {
+        long fileSize = segment.channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (position + HEADER <= fileSize) {
+            header.clear();
+            segment.channel.read(header, position);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                break;
+            }
+            byte type = header.get();
+            int nameLength = header.getShort() & 0xffff;
+            int payloadLength = header.getInt();
+            long storedAt = header.getLong();
+            long recordLength = (long) HEADER + nameLength + payloadLength + TRAILER;
+            if ((type != PUT && type != DELETE) || payloadLength < 0 || position + recordLength > fileSize) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.allocate((int) recordLength);
+            while (record.hasRemaining()) {
+                segment.channel.read(record, position + record.position());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, (int) recordLength - TRAILER);
+            if ((int) crc.getValue() != record.getInt((int) recordLength - TRAILER)) {
+                break;
+            }
+            String name = new String(record.array(), HEADER, nameLength, StandardCharsets.UTF_8);
+            visitor.visit(type, name, position, position + HEADER + nameLength, payloadLength, storedAt);
+            position += recordLength;
+        }
+        return position;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("blobs", index.size());
+        stats.put("segments", segments.size());
+        stats.put("bytes", segments.values().stream().mapToLong(segment -> segment.size).sum());
+        stats.put("liveBytes", segments.values().stream().mapToLong(segment -> segment.liveBytes.get()).sum());
+        stats.put("segmentsCompacted", segmentsCompacted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() {
+        segments.values().forEach(Segment::close);
+    }
+
+    /**
+     * A stored blob: {@code data} is a read-only buffer positioned at its first byte.
+     */
+    public record Blob(ByteBuffer data, long storedAt) {
+    }
+
+    private record Location(long segment, long offset, int length, long storedAt) {
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(byte type, String name, long position, long payloadOffset, int payloadLength, long storedAt)
+                throws IOException;
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicLong liveBytes = new AtomicLong();
+        private volatile long size;
+        private volatile MappedByteBuffer mapped;
+
+        private Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        static Segment create(Path directory, long id) throws IOException {
+            Path path = directory.resolve(String.format("segment-%012d.pack", id));
+            return new Segment(id, path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        static Segment open(Path path) throws IOException {
+            String fileName = path.getFileName().toString();
+            long id = Long.parseLong(fileName.substring("segment-".length(), fileName.length() - ".pack".length()));
+            return new Segment(id, path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        /**
+         * Called once the segment stops growing; from then on reads go through a memory map.
+         */
+        void seal() throws IOException {
+            if (size > 0) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+
+        ByteBuffer read(long offset, int length) throws IOException {
+            MappedByteBuffer map = mapped;
+            if (map != null) {
+                return map.slice((int) offset, length).asReadOnlyBuffer();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + id);
+                }
+            }
+            return buffer.flip().asReadOnlyBuffer();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Could not close segment {}", id, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.petconnect.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.repository.PetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded read-through cache of pet detail views keyed by id. Caffeine's W-TinyLFU policy keeps
+ * the few heavily viewed pets resident while one-off lookups are evicted first. Entries are
+ * listing projections, so a hit is ready to serialize without touching the database.
+ */
+@Service
+public class PetCache {
+
+    private final PetRepository petRepository;
+    private final Cache<Long, PetSummary> cache;
+
+    public PetCache(PetRepository petRepository,
+                    @Value("${pets.cache.maximum-size}") long maximumSize,
+                    @Value("${pets.cache.ttl}") Duration ttl) {
+        this.petRepository = petRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<PetSummary> get(Long id) {
+        return Optional.ofNullable(cache.get(id, this::load));
+    }
+
+    /**
+     * @return the cached entry without loading it on a miss
+     */
+    public Optional<PetSummary> peek(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+
+    private PetSummary load(Long id) {
+        List<PetSummary> summaries = petRepository.findSummariesByIds(List.of(id));
+        return summaries.isEmpty() ? null : summaries.get(0);
+    }
+}
@@ -0,0 +1,296 @@
+package com.petconnect.service;
+
+import com.petconnect.dto.FacetResult;
+import com.petconnect.dto.PetFacets;
+import com.petconnect.model.Pet;
+import com.petconnect.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the browse facets of {@link Pet}. Every facet value owns a
+ * bitmap of pet ids; filters are answered with bitmap unions and intersections instead of a
+ * table scan. Pet ids are dense auto-increment keys, so plain {@link BitSet}s stay compact.
+ */
+@Service
+public class PetFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetFacetIndex.class);
+
+    public static final String SPECIES = "species";
+    public static final String BREED = "breed";
+    public static final String GENDER = "gender";
+    public static final String AVAILABLE = "available";
+    public static final String PRICE = "price";
+    public static final List<String> FACETS = List.of(SPECIES, BREED, GENDER, AVAILABLE, PRICE);
+
+    private static final double[] PRICE_BUCKET_EDGES = {100, 250, 500, 1000};
+
+    private final PetRepository petRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, BitSet>> postings = new HashMap<>();
+    private final Map<Long, PetFacets> indexed = new HashMap<>();
+    private final BitSet all = new BitSet();
+    // Writes made while a rebuild or consistency check reads the database; null otherwise.
+    // A null value records a removal.
+    private Map<Long, PetFacets> concurrentWrites;
+
+    public PetFacetIndex(PetRepository petRepository) {
+        this.petRepository = petRepository;
+        FACETS.forEach(facet -> postings.put(facet, new HashMap<>()));
+    }
+
+    /**
+     * Replaces the index with a fresh read of the database. Writes that land while the read is
+     * in flight are logged and applied on top of it, so the snapshot cannot undo them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<PetFacets> rows = readWhileLoggingWrites();
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Map::clear);
+            indexed.clear();
+            all.clear();
+            rows.forEach(this::add);
+            concurrentWrites.forEach((id, facets) -> {
+                removeIndexed(id);
+                if (facets != null) {
+                    add(facets);
+                }
+            });
+            concurrentWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Rebuilt pet facet index with {} pets", rows.size());
+    }
+
+    public void index(Pet pet) {
+        PetFacets facets = PetFacets.of(pet);
+        lock.writeLock().lock();
+        try {
+            removeIndexed(facets.id());
+            add(facets);
+            if (concurrentWrites != null) {
+                concurrentWrites.put(facets.id(), facets);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeIndexed(id);
+            if (concurrentWrites != null) {
+                concurrentWrites.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Values within one facet are OR-ed, facets are AND-ed. Counts for each facet are computed
+     * with every other facet's filter applied, so a selected value does not hide its siblings.
+     *
+     * @return total matches, up to {@code limit} matching ids (newest first) and per-value counts
+     */
+    public FacetResult search(Map<String, Set<String>> filters, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> selected = new HashMap<>();
+            for (String facet : FACETS) {
+                Set<String> values = filters.get(facet);
+                if (values == null || values.isEmpty()) {
+                    continue;
+                }
+                BitSet union = new BitSet();
+                for (String value : values) {
+                    BitSet bits = postings.get(facet).get(value);
+                    if (bits != null) {
+                        union.or(bits);
+                    }
+                }
+                selected.put(facet, union);
+            }
+
+            BitSet matches = intersect(selected, null);
+            Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+            // One scratch bitmap for every value's count; once grown, clear/or/and reuse its words
+            BitSet hits = new BitSet(all.length());
+            for (String facet : FACETS) {
+                BitSet base = intersect(selected, facet);
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                if (!base.isEmpty()) {
+                    postings.get(facet).forEach((value, bits) -> {
+                        hits.clear();
+                        hits.or(bits);
+                        hits.and(base);
+                        int count = hits.cardinality();
+                        if (count > 0) {
+                            valueCounts.put(value, count);
+                        }
+                    });
+                }
+                counts.put(facet, valueCounts);
+            }
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = matches.previousSetBit(matches.length() - 1); i >= 0 && ids.size() < limit;
+                 i = matches.previousSetBit(i - 1)) {
+                ids.add((long) i);
+            }
+            return new FacetResult(matches.cardinality(), ids, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the database and rebuilds it if they have drifted apart. Pets
+     * indexed or removed while the database is read are skipped, since the snapshot may predate
+     * them.
+     *
+     * @return the number of pets that were missing, stale or extra in the index
+     */
+    @Scheduled(fixedDelayString = "${pets.facets.check-interval-ms:3600000}",
+            initialDelayString = "${pets.facets.check-interval-ms:3600000}")
+    public synchronized int checkConsistency() {
+        Map<Long, PetFacets> expected = readWhileLoggingWrites().stream()
+                .collect(Collectors.toMap(PetFacets::id, Function.identity()));
+        int drift = 0;
+        lock.readLock().lock();
+        try {
+            for (PetFacets facets : expected.values()) {
+                if (!concurrentWrites.containsKey(facets.id()) && !facets.equals(indexed.get(facets.id()))) {
+                    drift++;
+                }
+            }
+            for (Long id : indexed.keySet()) {
+                if (!expected.containsKey(id) && !concurrentWrites.containsKey(id)) {
+                    drift++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        stopLoggingWrites();
+        if (drift > 0) {
+            logger.warn("Pet facet index drifted from the database by {} pets, rebuilding", drift);
+            rebuild();
+        }
+        return drift;
+    }
+
+    /**
+     * Reads every pet's facets with {@link #concurrentWrites} open, so writes racing the read
+     * can be told apart afterwards. On success the log stays open for the caller to close.
+     */
+    private List<PetFacets> readWhileLoggingWrites() {
+        lock.writeLock().lock();
+        try {
+            concurrentWrites = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return petRepository.findAllFacets();
+        } catch (RuntimeException e) {
+            stopLoggingWrites();
+            throw e;
+        }
+    }
+
+    private void stopLoggingWrites() {
+        lock.writeLock().lock();
+        try {
+            concurrentWrites = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static String priceBucket(double price) {
+        double lower = 0;
+        for (double edge : PRICE_BUCKET_EDGES) {
+            if (price < edge) {
+                return (long) lower + "-" + (long) edge;
+            }
+            lower = edge;
+        }
+        return (long) lower + "+";
+    }
+
+    private BitSet intersect(Map<String, BitSet> selected, String excludedFacet) {
+        BitSet result = (BitSet) all.clone();
+        selected.forEach((facet, bits) -> {
+            if (!facet.equals(excludedFacet)) {
+                result.and(bits);
+            }
+        });
+        return result;
+    }
+
+    private void add(PetFacets facets) {
+        int doc = Math.toIntExact(facets.id());
+        indexed.put(facets.id(), facets);
+        all.set(doc);
+        valuesOf(facets).forEach((facet, value) ->
+                postings.get(facet).computeIfAbsent(value, key -> new BitSet()).set(doc));
+    }
+
+    private void removeIndexed(Long id) {
+        PetFacets previous = indexed.remove(id);
+        if (previous == null) {
+            return;
+        }
+        int doc = Math.toIntExact(id);
+        all.clear(doc);
+        valuesOf(previous).forEach((facet, value) -> {
+            Map<String, BitSet> values = postings.get(facet);
+            BitSet bits = values.get(value);
+            if (bits != null) {
+                bits.clear(doc);
+                if (bits.isEmpty()) {
+                    values.remove(value);
+                }
+            }
+        });
+    }
+
+    private static Map<String, String> valuesOf(PetFacets facets) {
+        Map<String, String> values = new HashMap<>();
+        putIfPresent(values, SPECIES, facets.species());
+        putIfPresent(values, BREED, facets.breed());
+        putIfPresent(values, GENDER, facets.gender());
+        values.put(AVAILABLE, String.valueOf(facets.available()));
+        values.put(PRICE, priceBucket(facets.price()));
+        return values;
+    }
+
+    private static void putIfPresent(Map<String, String> values, String facet, String value) {
+        if (value != null && !value.isBlank()) {
+            values.put(facet, value);
+        }
+    }
+}
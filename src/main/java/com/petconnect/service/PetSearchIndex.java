@@ -0,0 +1,222 @@
+package com.petconnect.service;
+
+import com.petconnect.dto.PetSummary;
+import com.petconnect.model.Pet;
+import com.petconnect.repository.PetRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded Lucene index over pet name, breed, species and description. English analysis gives
+ * tokenization, stop words and Porter stemming; ranking is Lucene's default BM25. Segments live
+ * on local disk and are committed periodically. Each commit records a fingerprint of the pets
+ * table, so restarts only reindex when the index was built from a different database state. Searches see writes after the next scheduled
+ * commit, which also refreshes the searcher, rather than reopening it on every write.
+ */
+@Service
+public class PetSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String BREED = "breed";
+    private static final String SPECIES = "species";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> BOOSTS = Map.of(NAME, 3f, BREED, 2f, SPECIES, 2f, DESCRIPTION, 1f);
+    private static final int REBUILD_CHUNK_SIZE = 500;
+    private static final String DB_FINGERPRINT = "db-fingerprint";
+
+    private final PetRepository petRepository;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final FSDirectory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+
+    public PetSearchIndex(PetRepository petRepository, @Value("${pets.search.index-dir}") String indexDir) {
+        this.petRepository = petRepository;
+        try {
+            Path indexPath = Paths.get(indexDir).toAbsolutePath().normalize();
+            this.directory = FSDirectory.open(indexPath);
+            this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not open the pet search index.", ex);
+        }
+    }
+
+    /**
+     * Rebuilds unless the index on disk was committed against the database as it is now. A
+     * matching document count alone is not enough: an in-memory database restarted with the
+     * same number of pets would leave the index serving the old pets and ids.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() {
+        long indexed = indexWriter.getDocStats().numDocs;
+        long stored = petRepository.count();
+        String committed = committedFingerprint();
+        String current = petRepository.contentFingerprint();
+        if (indexed != stored || !current.equals(committed)) {
+            logger.info("Pet search index ({} documents, fingerprint {}) does not match the database "
+                    + "({} pets, fingerprint {}), rebuilding", indexed, committed, stored, current);
+            rebuild();
+        }
+    }
+
+    private String committedFingerprint() {
+        try {
+            if (!DirectoryReader.indexExists(directory)) {
+                return null;
+            }
+            return SegmentInfos.readLatestCommit(directory).getUserData().get(DB_FINGERPRINT);
+        } catch (IOException ex) {
+            logger.warn("Could not read the pet search index commit data", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Commits pending changes tagged with the database state they reflect. The fingerprint is
+     * taken first, so a write racing with the commit can only make it look stale, never current.
+     */
+    private void commit(String fingerprint) throws IOException {
+        indexWriter.setLiveCommitData(Map.of(DB_FINGERPRINT, fingerprint).entrySet());
+        indexWriter.commit();
+    }
+
+    public void rebuild() {
+        try {
+            String fingerprint = petRepository.contentFingerprint();
+            indexWriter.deleteAll();
+            Long lastId = null;
+            List<PetSummary> chunk;
+            do {
+                chunk = petRepository.findSummariesAfterId(lastId, REBUILD_CHUNK_SIZE);
+                for (PetSummary pet : chunk) {
+                    indexWriter.addDocument(document(pet.getId(), pet.getName(), pet.getBreed(),
+                            pet.getSpecies(), pet.getDescription()));
+                }
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            commit(fingerprint);
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not rebuild the pet search index.", ex);
+        }
+    }
+
+    public void index(Pet pet) {
+        try {
+            indexWriter.updateDocument(new Term(ID, pet.getId().toString()),
+                    document(pet.getId(), pet.getName(), pet.getBreed(), pet.getSpecies(), pet.getDescription()));
+        } catch (IOException ex) {
+            // The database write already succeeded; the next rebuild repairs the index
+            logger.error("Could not index pet {}", pet.getId(), ex);
+        }
+    }
+
+    public void remove(Long id) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID, id.toString()));
+        } catch (IOException ex) {
+            logger.error("Could not remove pet {} from the search index", id, ex);
+        }
+    }
+
+    /**
+     * @return ids of the best matching pets, highest score first
+     */
+    public List<Long> search(String text, int limit) {
+        if (text == null || text.isBlank() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        try {
+            // No operator flags: every character is plain text, so input like "NOT" or "a AND"
+            // cannot change the query's structure or fail to parse
+            Query query = new SimpleQueryParser(analyzer, BOOSTS, 0).parse(text);
+
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not search pets.", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pets.search.commit-interval-ms}")
+    public void commit() {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                commit(petRepository.contentFingerprint());
+                searcherManager.maybeRefresh();
+            }
+        } catch (IOException ex) {
+            logger.error("Could not commit the pet search index", ex);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    private static Document document(Long id, String name, String breed, String species, String description) {
+        Document document = new Document();
+        document.add(new StringField(ID, id.toString(), Field.Store.YES));
+        addText(document, NAME, name);
+        addText(document, BREED, breed);
+        addText(document, SPECIES, species);
+        addText(document, DESCRIPTION, description);
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+}
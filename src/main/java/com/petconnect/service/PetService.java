@@ -1,17 +1,39 @@
 package com.petconnect.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petconnect.dto.FacetResult;
+import com.petconnect.dto.PetCursor;
+import com.petconnect.dto.PetFilter;
+import com.petconnect.dto.PetPage;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.dto.PetVersion;
+import com.petconnect.model.FileDeletion;
 import com.petconnect.model.Pet;
+import com.petconnect.repository.FileDeletionRepository;
 import com.petconnect.repository.PetRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PetService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     @Autowired
     private PetRepository petRepository;
 
@@ -21,22 +43,125 @@ public class PetService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PetFacetIndex petFacetIndex;
+
+    @Autowired
+    private PetSearchIndex petSearchIndex;
+
+    @Autowired
+    private PetCache petCache;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private FileDeletionRepository fileDeletionRepository;
+
     public Pet convertJsonToPet(String petJson) throws Exception {
         return objectMapper.readValue(petJson, Pet.class);
     }
 
     public Pet registerPet(Pet pet, List<MultipartFile> images) {
+        List<String> imageUrls = List.of();
         if (images != null && !images.isEmpty()) {
-            List<String> imageUrls = fileStorageService.storeFiles(images);
+            // Returns only once every image is durable; nothing is kept if any of them fails
+            imageUrls = fileStorageService.storeFiles(images);
             pet.setImageUrls(imageUrls);
         }
-        return petRepository.save(pet);
+        Pet savedPet;
+        try {
+            savedPet = petRepository.save(pet);
+        } catch (RuntimeException e) {
+            fileStorageService.discardFiles(imageUrls);
+            throw e;
+        }
+        catalogVersion.increment();
+        petFacetIndex.index(savedPet);
+        petSearchIndex.index(savedPet);
+        return savedPet;
     }
 
     public List<Pet> getAllPets() {
         return petRepository.findAll();
     }
 
+    public PetPage<PetSummary> getPets(PetFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<PetSummary> rows = petRepository.findSummaryPage(filter, PetCursor.decode(cursor), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new PetPage<>(rows, null);
+        }
+        List<PetSummary> items = rows.subList(0, pageSize);
+        PetSummary last = items.get(pageSize - 1);
+        return new PetPage<>(items, new PetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public FacetResult searchFacets(Map<String, Set<String>> filters, int limit) {
+        return petFacetIndex.search(filters, Math.max(0, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    public List<PetSummary> searchPets(String query, int limit) {
+        List<Long> ids = petSearchIndex.search(query, Math.max(0, Math.min(limit, MAX_PAGE_SIZE)));
+        Map<Long, PetSummary> byId = petRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(PetSummary::getId, Function.identity()));
+        // Keep the relevance order of the index
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes every pet with an id greater than {@code afterId} as newline-delimited JSON, in id
+     * order. The catalog is scrolled in fixed-size chunks and flushed after each one, so memory
+     * stays bounded and an interrupted export can resume from the last id it received.
+     */
+    public void exportPets(Long afterId, OutputStream out) throws IOException {
+        Long lastId = afterId;
+        List<PetSummary> chunk;
+        do {
+            chunk = petRepository.findSummariesAfterId(lastId, EXPORT_CHUNK_SIZE);
+            for (PetSummary pet : chunk) {
+                out.write(objectMapper.writeValueAsBytes(pet));
+                out.write('\n');
+            }
+            out.flush();
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    public PetSummary getPetSummary(Long id) {
+        return petCache.get(id)
+                .orElseThrow(() -> new RuntimeException("Pet not found"));
+    }
+
+    /**
+     * Answers from the cache when possible and otherwise reads only the version columns,
+     * so a conditional GET that ends in 304 never loads the full pet.
+     */
+    public PetVersion getPetVersion(Long id) {
+        return petCache.peek(id)
+                .map(PetVersion::of)
+                .or(() -> petRepository.findVersionById(id))
+                .orElseThrow(() -> new RuntimeException("Pet not found"));
+    }
+
+    public String getCatalogEtag(String listingKey) {
+        return catalogVersion.etag(listingKey);
+    }
+
+    public long getCatalogLastModified() {
+        return catalogVersion.getLastModified();
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return petCache.stats();
+    }
+
     public Pet getPetById(Long id) {
         return petRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pet not found"));
@@ -52,14 +177,47 @@ public class PetService {
         pet.setDescription(petDetails.getDescription());
         pet.setPrice(petDetails.getPrice());
         pet.setAvailable(petDetails.isAvailable());
-        return petRepository.save(pet);
+        Pet savedPet = petRepository.save(pet);
+        petCache.invalidate(id);
+        catalogVersion.increment();
+        petFacetIndex.index(savedPet);
+        petSearchIndex.index(savedPet);
+        return savedPet;
     }
 
+    /**
+     * Deletes the pet and queues its images in the deletion outbox within one transaction; the
+     * files themselves are removed by {@link FileDeletionOutboxWorker} after commit. Cache and
+     * index eviction also waits for the commit.
+     */
+    @Transactional
     public void deletePet(Long id) {
         Pet pet = getPetById(id);
         if (pet.getImageUrls() != null) {
-            pet.getImageUrls().forEach(fileStorageService::deleteFile);
+            fileDeletionRepository.saveAll(pet.getImageUrls().stream()
+                    .map(FileDeletion::new)
+                    .collect(Collectors.toList()));
         }
         petRepository.delete(pet);
+        // Readers must not lose the pet from caches and indexes while the delete can still roll back
+        runAfterCommit(() -> {
+            petCache.invalidate(id);
+            catalogVersion.increment();
+            petFacetIndex.remove(id);
+            petSearchIndex.remove(id);
+        });
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 } 
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.petconnect.service;
+
+import com.petconnect.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Moves an existing upload directory over to content-addressed storage. Run the application
+ * with {@code file.content-addressed=true} and {@code --dedupe-uploads}. Each upload is renamed
+ * to its SHA-256 (duplicates are deleted), pet image URLs are rewritten, and reference counts
+ * are rebuilt from {@code pet_images}.
+ *
+ * <p>References are rewritten before the file moves, so an interrupted run can simply be
+ * started again.
+ */
+@Service
+public class UploadDedupMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UploadDedupMigration.class);
+
+    private final FileStorageService fileStorageService;
+    private final BlobReferenceService blobReferenceService;
+    private final PetRepository petRepository;
+
+    public UploadDedupMigration(FileStorageService fileStorageService,
+                                BlobReferenceService blobReferenceService,
+                                PetRepository petRepository) {
+        this.fileStorageService = fileStorageService;
+        this.blobReferenceService = blobReferenceService;
+        this.petRepository = petRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("dedupe-uploads")) {
+            migrate();
+        }
+    }
+
+    public void migrate() {
+        if (!fileStorageService.isContentAddressed()) {
+            logger.warn("Skipping upload dedupe: file.content-addressed is not enabled");
+            return;
+        }
+        int renamed = 0;
+        for (String fileName : fileStorageService.listStoredFiles()) {
+            String blobName = blobReferenceService.contentAddressOf(fileName);
+            if (!blobName.equals(fileName)) {
+                petRepository.renameImage(fileName, blobName);
+                blobReferenceService.adoptFile(fileName, blobName);
+                renamed++;
+            }
+        }
+
+        Map<String, Long> references = petRepository.findAllImageUrls().stream()
+                .map(url -> url.substring(url.lastIndexOf('/') + 1))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        int blobs = 0;
+        for (String blobName : fileStorageService.listStoredFiles()) {
+            blobReferenceService.setReferenceCount(blobName, references.getOrDefault(blobName, 0L));
+            blobs++;
+        }
+        logger.info("Upload dedupe finished: {} files renamed, {} blobs stored", renamed, blobs);
+    }
+}
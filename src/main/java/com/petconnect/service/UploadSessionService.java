@@ -0,0 +1,295 @@
+package com.petconnect.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resumable uploads: a client opens a session for a file of known size, appends chunks at the
+ * offset the server reports, and completes the session once every byte has arrived. Chunks are
+ * streamed straight into a part file under {@code .sessions/} in the upload directory, so
+ * request memory does not depend on file size. Completing hands the part file to
+ * {@link FileStorageService} by rename.
+ *
+ * <p>Sessions expire after {@code file.upload-sessions.ttl} without activity. Each one is
+ * described by an {@code <id>.json} next to its part file; at startup, sessions are rebuilt from
+ * them with the part file's length as the offset and its modification time as the last
+ * activity, so clients can resume across a restart.
+ */
+@Service
+public class UploadSessionService {
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private final FileStorageService fileStorageService;
+    private final ObjectMapper objectMapper;
+    private final Path sessionLocation;
+    private final long maxSize;
+    private final Duration ttl;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public UploadSessionService(FileStorageService fileStorageService,
+                                ObjectMapper objectMapper,
+                                @Value("${file.upload-dir}") String uploadDir,
+                                @Value("${file.upload-sessions.max-size:100MB}") DataSize maxSize,
+                                @Value("${file.upload-sessions.ttl:24h}") Duration ttl) {
+        this.fileStorageService = fileStorageService;
+        this.objectMapper = objectMapper;
+        // Inside the upload directory so completing is a rename on the same filesystem
+        this.sessionLocation = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".sessions");
+        this.maxSize = maxSize.toBytes();
+        this.ttl = ttl;
+        try {
+            Files.createDirectories(sessionLocation);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the upload session directory.", ex);
+        }
+        recoverSessions();
+    }
+
+    /**
+     * Rebuilds sessions that were still open when the previous run stopped. Expired sessions,
+     * unreadable metadata and part files without metadata are removed.
+     */
+    private void recoverSessions() {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(sessionLocation)) {
+            files = list.collect(Collectors.toList());
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read the upload session directory.", ex);
+        }
+        Instant cutoff = Instant.now().minus(ttl);
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (!name.endsWith(".json")) {
+                continue;
+            }
+            String id = name.substring(0, name.length() - ".json".length());
+            Path partFile = sessionLocation.resolve(id + ".part");
+            try {
+                SessionMetadata metadata = objectMapper.readValue(file.toFile(), SessionMetadata.class);
+                Instant lastActivity = Files.getLastModifiedTime(partFile).toInstant();
+                if (lastActivity.isBefore(cutoff)) {
+                    throw new IOException("expired");
+                }
+                UploadSession session = new UploadSession(id, metadata.filename(), metadata.size(), partFile);
+                // Chunks are forced to disk before the offset moves, so the length is what arrived
+                session.offset = Math.min(Files.size(partFile), metadata.size());
+                session.lastActivity = lastActivity;
+                sessions.put(id, session);
+            } catch (IOException | RuntimeException ex) {
+                logger.info("Discarding upload session {}: {}", id, ex.getMessage());
+                deleteQuietly(file);
+                deleteQuietly(partFile);
+            }
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            // Part files whose session was not recovered
+            if (name.endsWith(".part") && !sessions.containsKey(name.substring(0, name.length() - ".part".length()))) {
+                deleteQuietly(file);
+            }
+        }
+        if (!sessions.isEmpty()) {
+            logger.info("Recovered {} upload sessions", sessions.size());
+        }
+    }
+
+    public UploadSession create(String filename, long size) {
+        if (filename == null || !filename.contains(".")) {
+            throw new IllegalArgumentException("A file name with an extension is required");
+        }
+        if (size <= 0 || size > maxSize) {
+            throw new IllegalArgumentException("Upload size must be between 1 and " + maxSize + " bytes");
+        }
+        String id = UUID.randomUUID().toString();
+        UploadSession session = new UploadSession(id, filename, size, sessionLocation.resolve(id + ".part"));
+        try {
+            Files.createFile(session.partFile);
+            objectMapper.writeValue(metadataFile(id).toFile(), new SessionMetadata(filename, size));
+        } catch (IOException ex) {
+            deletePart(session);
+            throw new RuntimeException("Could not create upload session", ex);
+        }
+        sessions.put(id, session);
+        return session;
+    }
+
+    public UploadSession get(String id) {
+        UploadSession session = sessions.get(id);
+        if (session == null) {
+            throw new NoSuchElementException("Upload session not found: " + id);
+        }
+        return session;
+    }
+
+    /**
+     * Appends the request body at {@code offset}, which must equal the bytes already received.
+     * If the connection drops mid-chunk, whatever arrived is kept and reported as the new offset.
+     *
+     * @return the offset after this chunk
+     * @throws IllegalStateException if {@code offset} does not match the session's offset
+     * @throws IllegalArgumentException if the chunk would exceed the declared size
+     */
+    public long append(String id, long offset, InputStream body) throws IOException {
+        UploadSession session = get(id);
+        synchronized (session) {
+            if (offset != session.offset) {
+                throw new IllegalStateException("Expected offset " + session.offset);
+            }
+            session.touch();
+            try (FileChannel channel = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                ReadableByteChannel source = Channels.newChannel(body);
+                long position = session.offset;
+                try {
+                    long transferred;
+                    while (position < session.size
+                            && (transferred = channel.transferFrom(source, position, session.size - position)) > 0) {
+                        position += transferred;
+                    }
+                } finally {
+                    // Record what arrived even if the client went away part way through
+                    channel.force(false);
+                    session.offset = position;
+                }
+                if (position == session.size && body.read() != -1) {
+                    throw new IllegalArgumentException("Chunk exceeds the declared upload size");
+                }
+            }
+            return session.offset;
+        }
+    }
+
+    /**
+     * Stores the assembled file and closes the session.
+     *
+     * @return the URL of the stored file
+     * @throws IllegalStateException if bytes are still missing
+     */
+    public String complete(String id) {
+        UploadSession session = get(id);
+        synchronized (session) {
+            if (session.offset != session.size) {
+                throw new IllegalStateException("Upload incomplete: " + session.offset + " of " + session.size + " bytes");
+            }
+            String url = fileStorageService.storeFile(session.partFile, session.filename);
+            sessions.remove(id);
+            deleteQuietly(metadataFile(id));
+            return url;
+        }
+    }
+
+    public Instant expiresAt(UploadSession session) {
+        return session.getLastActivity().plus(ttl);
+    }
+
+    public void abort(String id) {
+        UploadSession session = sessions.remove(id);
+        if (session != null) {
+            synchronized (session) {
+                deletePart(session);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${file.upload-sessions.cleanup-interval-ms:600000}")
+    public void expireSessions() {
+        Instant cutoff = Instant.now().minus(ttl);
+        sessions.values().removeIf(session -> {
+            if (session.lastActivity.isAfter(cutoff)) {
+                return false;
+            }
+            synchronized (session) {
+                deletePart(session);
+            }
+            logger.info("Expired upload session {} at {} of {} bytes", session.id, session.offset, session.size);
+            return true;
+        });
+    }
+
+    private void deletePart(UploadSession session) {
+        deleteQuietly(session.partFile);
+        deleteQuietly(metadataFile(session.id));
+    }
+
+    private Path metadataFile(String id) {
+        return sessionLocation.resolve(id + ".json");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Could not delete {}", file, ex);
+        }
+    }
+
+    /**
+     * What a session's {@code <id>.json} holds; the offset and last activity come from the part
+     * file itself.
+     */
+    record SessionMetadata(String filename, long size) {
+    }
+
+    public static class UploadSession {
+        private final String id;
+        private final String filename;
+        private final long size;
+        private final Path partFile;
+        private volatile long offset;
+        private volatile Instant lastActivity = Instant.now();
+
+        UploadSession(String id, String filename, long size, Path partFile) {
+            this.id = id;
+            this.filename = filename;
+            this.size = size;
+            this.partFile = partFile;
+        }
+
+        void touch() {
+            lastActivity = Instant.now();
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public Instant getLastActivity() {
+            return lastActivity;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.petconnect.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts every SQL statement Hibernate prepares. Lets tests assert that a read path
+ * issues a fixed number of statements instead of one per loaded row.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private final AtomicLong count = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        count.incrementAndGet();
+        return sql;
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public void reset() {
+        count.set(0);
+    }
+}
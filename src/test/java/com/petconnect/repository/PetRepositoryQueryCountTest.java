@@ -0,0 +1,73 @@
+package com.petconnect.repository;
+
+import com.petconnect.config.QueryCountInspector;
+import com.petconnect.config.QueryCountTestConfig;
+import com.petconnect.dto.PetSummary;
+import com.petconnect.model.Pet;
+import com.petconnect.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(QueryCountTestConfig.class)
+class PetRepositoryQueryCountTest {
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryCountInspector queryCountInspector;
+
+    private User seller;
+
+    @BeforeEach
+    void setUp() {
+        seller = new User();
+        seller.setUsername("seller");
+        seller.setPassword("secret");
+        seller.setEmail("seller@example.com");
+        seller.setRole("USER");
+        entityManager.persist(seller);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void summaryPageUsesConstantStatementCount(int petCount) {
+        // Given
+        for (int i = 0; i < petCount; i++) {
+            Pet pet = new Pet();
+            pet.setName("Pet " + i);
+            pet.setSpecies("Dog");
+            pet.setPrice(100);
+            pet.setSeller(seller);
+            pet.setImageUrls(List.of("a-" + i + ".jpg", "b-" + i + ".jpg"));
+            entityManager.persist(pet);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        queryCountInspector.reset();
+
+        // When
+        List<PetSummary> page = petRepository.findSummaryPage(null, null, petCount);
+
+        // Then
+        assertEquals(petCount, page.size());
+        page.forEach(summary -> {
+            assertEquals(2, summary.getImageUrls().size());
+            assertEquals("seller", summary.getSellerUsername());
+        });
+        assertEquals(2, queryCountInspector.getCount());
+    }
+}
@@ -0,0 +1,127 @@
+package com.petconnect.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedBlobStoreTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private PackedBlobStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void putAndDeleteSurviveReopen() throws IOException {
+        store = open(DataSize.ofMegabytes(1));
+        store.put("kept.jpg", bytes(100, 1));
+        store.put("deleted.jpg", bytes(100, 2));
+        store.put("replaced.jpg", bytes(100, 3));
+        store.put("replaced.jpg", bytes(50, 4));
+        assertTrue(store.delete("deleted.jpg"));
+        assertFalse(store.delete("deleted.jpg"));
+
+        store = reopen(DataSize.ofMegabytes(1));
+
+        assertArrayEquals(bytes(100, 1), read("kept.jpg"));
+        assertArrayEquals(bytes(50, 4), read("replaced.jpg"));
+        assertFalse(store.contains("deleted.jpg"));
+        assertNull(store.read("deleted.jpg"));
+    }
+
+    @Test
+    void tornTailIsTruncatedOnReopen() throws IOException {
+        store = open(DataSize.ofMegabytes(1));
+        store.put("intact.jpg", bytes(100, 1));
+        store.close();
+        Path segment = segmentFiles().get(0);
+        // Half of a record header, as left by a crash mid-append
+        Files.write(segment, new byte[] {0x50, 0x42, 0x4c, 0x42, 1, 0, 9}, StandardOpenOption.APPEND);
+
+        store = open(DataSize.ofMegabytes(1));
+        assertArrayEquals(bytes(100, 1), read("intact.jpg"));
+        store.put("after.jpg", bytes(100, 2));
+
+        store = reopen(DataSize.ofMegabytes(1));
+        assertArrayEquals(bytes(100, 1), read("intact.jpg"));
+        assertArrayEquals(bytes(100, 2), read("after.jpg"));
+    }
+
+    @Test
+    void compactionKeepsTombstonesThatShadowOlderSegments() throws IOException {
+        DataSize segmentSize = DataSize.ofBytes(1024);
+        store = open(segmentSize);
+        // Segment 1 stays mostly live, so it is not compacted
+        store.put("shadowed.jpg", bytes(100, 1));
+        store.put("kept.jpg", bytes(600, 2));
+        // Segment 2 ends up mostly dead: one live blob and a tombstone for segment 1
+        store.put("dead.jpg", bytes(600, 3));
+        store.put("moved.jpg", bytes(50, 4));
+        store.delete("shadowed.jpg");
+        store.delete("dead.jpg");
+        // Rolls to segment 3, sealing segment 2
+        store.put("latest.jpg", bytes(850, 5));
+        assertEquals(3, segmentFiles().size());
+
+        store.compact();
+
+        assertEquals(2, segmentFiles().size());
+        assertArrayEquals(bytes(50, 4), read("moved.jpg"));
+
+        store = reopen(segmentSize);
+        assertFalse(store.contains("shadowed.jpg"));
+        assertFalse(store.contains("dead.jpg"));
+        assertArrayEquals(bytes(600, 2), read("kept.jpg"));
+        assertArrayEquals(bytes(50, 4), read("moved.jpg"));
+        assertArrayEquals(bytes(850, 5), read("latest.jpg"));
+    }
+
+    private PackedBlobStore open(DataSize segmentSize) {
+        return new PackedBlobStore(uploadDir.toString(), true, DataSize.ofKilobytes(256), segmentSize, 0.5);
+    }
+
+    private PackedBlobStore reopen(DataSize segmentSize) {
+        store.close();
+        return open(segmentSize);
+    }
+
+    private byte[] read(String name) throws IOException {
+        PackedBlobStore.Blob blob = store.read(name);
+        assertNotNull(blob, name);
+        ByteBuffer data = blob.data();
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir.resolve(".packs"))) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static byte[] bytes(int length, int fill) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) fill);
+        return bytes;
+    }
+}